@@ -0,0 +1,24 @@
+package com.reactlibrary;
+
+import android.util.Log;
+
+/**
+ * Logger writing to logcat
+ */
+public class AndroidLogger extends Logger {
+
+    public static final AndroidLogger INSTANCE = new AndroidLogger();
+
+    private AndroidLogger() {
+    }
+
+    @Override
+    public void debug(String tag, String message) {
+        Log.d(tag, message);
+    }
+
+    @Override
+    public void error(String tag, String message, Throwable error) {
+        Log.e(tag, message, error);
+    }
+}
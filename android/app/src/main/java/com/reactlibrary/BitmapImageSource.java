@@ -0,0 +1,24 @@
+package com.reactlibrary;
+
+import android.graphics.Bitmap;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+/**
+ * A Bitmap to scan, converted to RGBA with the OpenCV Android utils
+ */
+public class BitmapImageSource implements ImageSource {
+
+    private final Bitmap bitmap;
+
+    public BitmapImageSource(Bitmap bitmap) {
+        this.bitmap = bitmap;
+    }
+
+    @Override
+    public Mat toRgba(MatPool.Scope scope) {
+        return BitmapUtils.bitmapToMat(bitmap,
+                scope.obtain(bitmap.getHeight(), bitmap.getWidth(), CvType.CV_8UC4));
+    }
+}
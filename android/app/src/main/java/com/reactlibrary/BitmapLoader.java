@@ -0,0 +1,123 @@
+package com.reactlibrary;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.util.Base64;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes scan input into an ARGB_8888 Bitmap (the config OpenCV's
+ * Utils.bitmapToMat expects). File paths and content URIs are decoded
+ * straight from disk, first reading only the bounds so the image can be
+ * subsampled to the size the pipeline needs
+ */
+public class BitmapLoader {
+
+    // long side the scan pipeline works at; 12MP captures are subsampled
+    public static final int SCAN_MAX_DIMENSION = 2048;
+    // the blur check only needs a rough view of the edges
+    public static final int BLUR_CHECK_MAX_DIMENSION = 1024;
+
+    private BitmapLoader() {
+    }
+
+    /**
+     * decodes image at path or uri, subsampled by a power of two so its long
+     * side is not above maxDimension
+     *
+     * @param context
+     *            used to resolve content:// uris
+     * @param pathOrUri
+     *            absolute file path, file:// uri or content:// uri
+     * @param maxDimension
+     *            wanted long side in pixels, 0 to keep full resolution
+     * @return decoded bitmap
+     * @throws IOException
+     *             if the image cannot be opened or decoded
+     */
+    public static Bitmap decode(Context context, String pathOrUri,
+                                int maxDimension) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decodeStream(context, pathOrUri, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            throw new IOException("Unsupported Image: " + pathOrUri);
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight,
+                maxDimension);
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        Bitmap bitmap = decodeStream(context, pathOrUri, options);
+        if (bitmap == null) {
+            throw new IOException("Unsupported Image: " + pathOrUri);
+        }
+        return bitmap;
+    }
+
+    /**
+     * decodes base64 encoded image at full resolution
+     */
+    public static Bitmap decodeBase64(String imageAsBase64) throws IOException {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inDither = true;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        byte[] decodedString = Base64.decode(imageAsBase64, Base64.DEFAULT);
+        Bitmap bitmap = BitmapFactory.decodeByteArray(decodedString, 0,
+                decodedString.length, options);
+        if (bitmap == null) {
+            throw new IOException("Unsupported Image");
+        }
+        return bitmap;
+    }
+
+    /**
+     * returns largest power of two that keeps the long side at or above
+     * maxDimension
+     */
+    static int sampleSize(int width, int height, int maxDimension) {
+        int sampleSize = 1;
+        if (maxDimension <= 0) {
+            return sampleSize;
+        }
+        int longSide = Math.max(width, height);
+        while (longSide / (sampleSize * 2) >= maxDimension) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static Bitmap decodeStream(Context context, String pathOrUri,
+                                       BitmapFactory.Options options) throws IOException {
+        InputStream in = open(context, pathOrUri);
+        try {
+            return BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static InputStream open(Context context, String pathOrUri)
+            throws FileNotFoundException {
+        Uri uri = Uri.parse(pathOrUri);
+        String scheme = uri.getScheme();
+        if (ContentResolver.SCHEME_CONTENT.equals(scheme)) {
+            InputStream in = context.getContentResolver().openInputStream(uri);
+            if (in == null) {
+                throw new FileNotFoundException(pathOrUri);
+            }
+            return in;
+        }
+        if (ContentResolver.SCHEME_FILE.equals(scheme)) {
+            return new FileInputStream(uri.getPath());
+        }
+        return new FileInputStream(pathOrUri);
+    }
+}
@@ -0,0 +1,62 @@
+package com.reactlibrary;
+
+import android.graphics.Bitmap;
+import android.util.Base64;
+import android.util.Log;
+
+import org.opencv.android.Utils;
+import org.opencv.core.CvException;
+import org.opencv.core.Mat;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Conversions between Bitmaps and Mats. Kept apart from ImageManipUtils so
+ * the image processing itself has no Android dependency
+ */
+public class BitmapUtils {
+
+    private BitmapUtils() {
+    }
+
+    public static Bitmap convertMatToBitmap(Mat tmp) {
+        Bitmap bmp = null;
+        try {
+            bmp = Bitmap.createBitmap(tmp.cols(), tmp.rows(), Bitmap.Config.ARGB_8888);
+            Utils.matToBitmap(tmp, bmp);
+
+        } catch (CvException e){
+            Log.d("Exception",e.getMessage());
+        }
+        return bmp;
+    }
+
+    public static String convertToBase64(Bitmap bitmap) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, byteArrayOutputStream);
+        byte[] byteArray = byteArrayOutputStream .toByteArray();
+
+        String encoded = Base64.encodeToString(byteArray, Base64.DEFAULT);
+        return encoded;
+    }
+
+    public static Mat bitmapToMat(Bitmap bmp) {
+        return bitmapToMat(bmp, new Mat());
+    }
+
+    /**
+     * converts bmp to an RGBA Mat, reusing dst when it already has the
+     * bitmap's size
+     */
+    public static Mat bitmapToMat(Bitmap bmp, Mat dst) {
+        Utils.bitmapToMat(bmp, dst);
+        return dst;
+    }
+
+    /**
+     * converts bitmap to an RGBA Mat taken from scope and preprocesses it
+     */
+    public static PreprocessedFrame preprocess(Bitmap bitmap, MatPool.Scope scope) {
+        return PreprocessedFrame.compute(new BitmapImageSource(bitmap).toRgba(scope), scope);
+    }
+}
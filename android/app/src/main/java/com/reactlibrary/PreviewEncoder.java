@@ -0,0 +1,136 @@
+package com.reactlibrary;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.util.Base64;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Encodes a scan's preview image as PreviewOptions asks: downscaled to the
+ * max dimension before the Bitmap round trip, compressed to JPEG, WebP or
+ * PNG and returned either as base64 or as the uri of a file in the app's
+ * cache (so only a short string crosses the bridge)
+ */
+public class PreviewEncoder {
+
+    static final String CACHE_DIR = "scan-previews";
+    // previews older than the newest few are deleted on every write
+    static final int MAX_CACHED_FILES = 8;
+
+    private final Context context;
+
+    public PreviewEncoder(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * @param image
+     *            CV_8UC1, CV_8UC3 or CV_8UC4 preview source; left untouched
+     * @param scope
+     *            source of the downscaled Mat
+     * @return the encoded preview, null when options are not enabled
+     */
+    public Preview encode(Mat image, PreviewOptions options, MatPool.Scope scope)
+            throws IOException {
+        if (!options.isEnabled()) {
+            return null;
+        }
+        Mat scaled = scale(image, options.getMaxDimension(), scope);
+        Bitmap bitmap = BitmapUtils.convertMatToBitmap(scaled);
+        if (bitmap == null) {
+            throw new IOException("Preview could not be converted");
+        }
+        try {
+            if (options.isFileOutput()) {
+                return new Preview(null, writeFile(bitmap, options));
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            bitmap.compress(options.getFormat(), options.getQuality(), out);
+            return new Preview(Base64.encodeToString(out.toByteArray(),
+                    Base64.DEFAULT), null);
+        } finally {
+            bitmap.recycle();
+        }
+    }
+
+    private static Mat scale(Mat image, int maxDimension, MatPool.Scope scope) {
+        int longSide = Math.max(image.cols(), image.rows());
+        if (maxDimension <= 0 || longSide <= maxDimension) {
+            return image;
+        }
+        double factor = (double) maxDimension / longSide;
+        Size size = new Size(Math.max(1, Math.round(image.cols() * factor)),
+                Math.max(1, Math.round(image.rows() * factor)));
+        Mat scaled = scope.obtain(size, image.type());
+        Imgproc.resize(image, scaled, size, 0, 0, Imgproc.INTER_AREA);
+        return scaled;
+    }
+
+    private String writeFile(Bitmap bitmap, PreviewOptions options)
+            throws IOException {
+        File dir = new File(context.getCacheDir(), CACHE_DIR);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+        File file = File.createTempFile("preview-", "." + options.getExtension(), dir);
+        OutputStream out = new FileOutputStream(file);
+        try {
+            if (!bitmap.compress(options.getFormat(), options.getQuality(), out)) {
+                throw new IOException("Preview could not be encoded");
+            }
+        } finally {
+            out.close();
+        }
+        trimCache(dir);
+        return Uri.fromFile(file).toString();
+    }
+
+    private static void trimCache(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null || files.length <= MAX_CACHED_FILES) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(b.lastModified(), a.lastModified());
+            }
+        });
+        for (int i = MAX_CACHED_FILES; i < files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    /**
+     * encoded preview; exactly one of base64 and uri is set
+     */
+    public static class Preview {
+        private final String base64;
+        private final String uri;
+
+        Preview(String base64, String uri) {
+            this.base64 = base64;
+            this.uri = uri;
+        }
+
+        public String getBase64() {
+            return base64;
+        }
+
+        public String getUri() {
+            return uri;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.reactlibrary;
+
+import android.graphics.Bitmap;
+
+import com.facebook.react.bridge.ReadableMap;
+
+/**
+ * What preview image, if any, a scan returns next to the grid. Parsed from
+ * the options map JS passes to scanSudokuFromUri / scanSudokuAsync:
+ *
+ * { preview: true, maxDimension: 512, format: 'jpeg' | 'webp' | 'png',
+ * quality: 80, output: 'base64' | 'file' }
+ *
+ * Without preview: true no image is encoded at all
+ */
+public class PreviewOptions {
+
+    public static final String OUTPUT_BASE64 = "base64";
+    public static final String OUTPUT_FILE = "file";
+
+    private boolean enabled = false;
+    private int maxDimension = 512;
+    private Bitmap.CompressFormat format = Bitmap.CompressFormat.JPEG;
+    private int quality = 80;
+    private String output = OUTPUT_BASE64;
+
+    private PreviewOptions() {
+    }
+
+    /**
+     * no preview; the scan only returns the grid
+     */
+    public static PreviewOptions none() {
+        return new PreviewOptions();
+    }
+
+    /**
+     * full resolution base64 PNG, what scans returned before the preview
+     * became configurable
+     */
+    public static PreviewOptions legacy() {
+        PreviewOptions options = new PreviewOptions();
+        options.enabled = true;
+        options.maxDimension = 0;
+        options.format = Bitmap.CompressFormat.PNG;
+        options.quality = 100;
+        return options;
+    }
+
+    /**
+     * @param map
+     *            options from JS, null for none()
+     * @throws IllegalArgumentException
+     *             on unknown format or output
+     */
+    public static PreviewOptions fromMap(ReadableMap map) {
+        PreviewOptions options = new PreviewOptions();
+        if (map == null) {
+            return options;
+        }
+        if (has(map, "preview")) {
+            options.enabled = map.getBoolean("preview");
+        }
+        if (has(map, "maxDimension")) {
+            options.maxDimension = Math.max(0, map.getInt("maxDimension"));
+        }
+        if (has(map, "format")) {
+            options.format = parseFormat(map.getString("format"));
+        }
+        if (has(map, "quality")) {
+            options.quality = Math.min(100, Math.max(0, map.getInt("quality")));
+        }
+        if (has(map, "output")) {
+            String output = map.getString("output");
+            if (!OUTPUT_BASE64.equals(output) && !OUTPUT_FILE.equals(output)) {
+                throw new IllegalArgumentException("Unknown preview output: " + output);
+            }
+            options.output = output;
+        }
+        return options;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * long side of the preview in pixels, 0 for the scan's resolution
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public Bitmap.CompressFormat getFormat() {
+        return format;
+    }
+
+    public int getQuality() {
+        return quality;
+    }
+
+    public boolean isFileOutput() {
+        return OUTPUT_FILE.equals(output);
+    }
+
+    /**
+     * returns file extension matching the format
+     */
+    public String getExtension() {
+        if (format == Bitmap.CompressFormat.PNG) {
+            return "png";
+        }
+        if (format == Bitmap.CompressFormat.WEBP) {
+            return "webp";
+        }
+        return "jpg";
+    }
+
+    private static boolean has(ReadableMap map, String key) {
+        return map.hasKey(key) && !map.isNull(key);
+    }
+
+    private static Bitmap.CompressFormat parseFormat(String format) {
+        if ("jpeg".equals(format) || "jpg".equals(format)) {
+            return Bitmap.CompressFormat.JPEG;
+        }
+        if ("webp".equals(format)) {
+            return Bitmap.CompressFormat.WEBP;
+        }
+        if ("png".equals(format)) {
+            return Bitmap.CompressFormat.PNG;
+        }
+        throw new IllegalArgumentException("Unknown preview format: " + format);
+    }
+}
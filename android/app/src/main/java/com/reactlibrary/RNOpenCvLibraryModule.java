@@ -5,10 +5,24 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactContextBaseJavaModule;
 import com.facebook.react.bridge.ReactMethod;
 import com.facebook.react.bridge.Callback;
+import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.google.gson.GsonBuilder;
+import com.reactlibrary.imageproc.GridDetector;
+import com.reactlibrary.imageproc.SharpnessMeter;
+import com.reactlibrary.ocr.DigitClassifierFactory;
+import com.reactlibrary.ocr.DigitPrototypes;
+import com.reactlibrary.ocr.DigitRecognizerFactory;
+import com.reactlibrary.ocr.OcrEngineManager;
+import com.reactlibrary.stats.Histogram;
+import com.reactlibrary.stats.PipelineStats;
+import com.reactlibrary.stats.Stage;
+import com.reactlibrary.stats.StageTimer;
 
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
@@ -32,13 +46,14 @@ import android.util.Base64;
 import android.util.Log;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Queue;
 
-public class RNOpenCvLibraryModule extends ReactContextBaseJavaModule {
+public class RNOpenCvLibraryModule extends ReactContextBaseJavaModule implements LifecycleEventListener {
 
     private final ReactApplicationContext reactContext;
     private static int GAP;
@@ -47,10 +62,32 @@ public class RNOpenCvLibraryModule extends ReactContextBaseJavaModule {
     private int threshold = 100;
     private boolean error = false;
     private Mat clean;
+    // "tesseract" or "prototype" (DigitClassifier)
+    private volatile String digitRecognizer = RECOGNIZER_TESSERACT;
+    private DigitPrototypes digitPrototypes;
+    // one scan at a time, two waiting; more are rejected with
+    // E_SCAN_QUEUE_FULL, so JS cancels a scan it no longer needs
+    private final ScanScheduler scanScheduler = new ScanScheduler(1, 2);
+    // scratch buffers of one scan at the pipeline's working sizes
+    private final MatPool matPool = new MatPool(16);
+    private final PreviewEncoder previewEncoder;
+    private final GridDetector gridDetector = new GridDetector();
+    private final SharpnessMeter sharpnessMeter = new SharpnessMeter();
+    // per-stage scan timings, off until JS enables them
+    private final PipelineStats pipelineStats = new PipelineStats();
+
+    private static final String TAG = "RNOpenCvLibrary";
+
+    public static final String RECOGNIZER_TESSERACT = "tesseract";
+    public static final String RECOGNIZER_PROTOTYPE = "prototype";
 
     public RNOpenCvLibraryModule(ReactApplicationContext reactContext) {
         super(reactContext);
         this.reactContext = reactContext;
+        this.previewEncoder = new PreviewEncoder(reactContext);
+        reactContext.addLifecycleEventListener(this);
+        // load the trained data before the first scan asks for it
+        OcrEngineManager.getInstance(reactContext).warmUp();
     }
 
     @Override
@@ -58,48 +95,61 @@ public class RNOpenCvLibraryModule extends ReactContextBaseJavaModule {
         return "RNOpenCvLibrary";
     }
 
+    @Override
+    public void onHostResume() {
+        OcrEngineManager.getInstance(reactContext).warmUp();
+    }
+
+    @Override
+    public void onHostPause() {
+    }
+
+    @Override
+    public void onHostDestroy() {
+        scanScheduler.cancelAll();
+        OcrEngineManager.getInstance(reactContext).shutdown();
+        matPool.clear();
+    }
+
+    @Override
+    public void onCatalystInstanceDestroy() {
+        scanScheduler.cancelAll();
+    }
+
+    /**
+     * selects the digit recognizer used by later scans: "tesseract" (default)
+     * or "prototype" for the bundled nearest-neighbour classifier. Any other
+     * name is logged and ignored; nothing may be thrown back at JS from here
+     */
+    @ReactMethod
+    public void setDigitRecognizer(String name) {
+        if (!RECOGNIZER_TESSERACT.equals(name) && !RECOGNIZER_PROTOTYPE.equals(name)) {
+            Log.w(TAG, "Unknown digit recognizer " + name + ", keeping " + digitRecognizer);
+            return;
+        }
+        digitRecognizer = name;
+    }
+
     @ReactMethod
     public void checkForBlurryImage(String imageAsBase64, Callback errorCallback, Callback successCallback) {
         try {
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inDither = true;
-            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-
-            byte[] decodedString = Base64.decode(imageAsBase64, Base64.DEFAULT);
-            Bitmap image = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-
-            int l = CvType.CV_8UC1;
-            Mat matImage = new Mat();
-            Utils.bitmapToMat(image, matImage);
-            Mat matImageGrey = new Mat();
-            Imgproc.cvtColor(matImage, matImageGrey, Imgproc.COLOR_BGR2GRAY);
-
-            Bitmap destImage;
-            destImage = Bitmap.createBitmap(image);
-            Mat dst2 = new Mat();
-            Utils.bitmapToMat(destImage, dst2);
-            Mat laplacianImage = new Mat();
-            dst2.convertTo(laplacianImage, l);
-            Imgproc.Laplacian(matImageGrey, laplacianImage, CvType.CV_8U);
-            Mat laplacianImage8bit = new Mat();
-            laplacianImage.convertTo(laplacianImage8bit, l);
-
-            Bitmap bmp = Bitmap.createBitmap(laplacianImage8bit.cols(), laplacianImage8bit.rows(), Bitmap.Config.ARGB_8888);
-            Utils.matToBitmap(laplacianImage8bit, bmp);
-            int[] pixels = new int[bmp.getHeight() * bmp.getWidth()];
-            bmp.getPixels(pixels, 0, bmp.getWidth(), 0, 0, bmp.getWidth(), bmp.getHeight());
-
-            int maxLap = -16777216; // 16m
-            for (int pixel : pixels) {
-                if (pixel > maxLap)
-                    maxLap = pixel;
-            }
-            int soglia = -8118750;
-            if (maxLap <= soglia) {
-                System.out.println("is blur image");
-            }
+            Bitmap image = BitmapLoader.decodeBase64(imageAsBase64);
+            successCallback.invoke(isBlurry(image));
+        } catch (Exception e) {
+            errorCallback.invoke(e.getMessage());
+        }
+    }
 
-            successCallback.invoke(maxLap <= soglia);
+    /**
+     * same as checkForBlurryImage but decodes the photo straight from a file
+     * path or content uri, subsampled for the check
+     */
+    @ReactMethod
+    public void checkForBlurryImageFromUri(String imageUri, Callback errorCallback, Callback successCallback) {
+        try {
+            Bitmap image = BitmapLoader.decode(reactContext, imageUri,
+                    BitmapLoader.BLUR_CHECK_MAX_DIMENSION);
+            successCallback.invoke(isBlurry(image));
         } catch (Exception e) {
             errorCallback.invoke(e.getMessage());
         }
@@ -108,42 +158,315 @@ public class RNOpenCvLibraryModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void scanSudoku(String imageAsBase64, Callback errorCallback, Callback successCallback) {
         try {
+            StageTimer timer = pipelineStats.newTimer();
+            timer.start(Stage.TOTAL);
+            timer.start(Stage.DECODE);
             /* Get the Image */
-            BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inDither = true;
-            options.inPreferredConfig = Bitmap.Config.ARGB_8888;
-            byte[] decodedString = Base64.decode(imageAsBase64, Base64.DEFAULT);
-            Bitmap image = BitmapFactory.decodeByteArray(decodedString, 0, decodedString.length);
-
-            ImageManipulation imgManip = new ImageManipulation(reactContext, image);
-            Mat resultImage = new Mat();
-            resultImage = ImageManipUtils.bitmapToMat(image);
-            resultImage = ImageManipUtils.convertToGrayScale(resultImage);
-            resultImage = ImageManipUtils.applyGausianBlur(resultImage);
-            resultImage = ImageManipUtils.adaptiveThreshold(resultImage);
-            resultImage = ImageManipUtils.applyBitwiseNot(resultImage);
-
-            int[][] grid = imgManip.getSudokuGridNums();
-            Bitmap bitmapImage = ImageManipUtils.convertMatToBitmap(resultImage);
-            String imageBase64 = ImageManipUtils.convertToBase64(bitmapImage);
-            ImageScanResponse result = new ImageScanResponse(grid, resultImage, imageBase64);
-            successCallback.invoke(result.toJsonString());
-//            Mat resultImage = response.getResultImage();
-//            if (!resultImage.empty()) {
-//                /* Give Base64 Image Back */
-//                Bitmap bitmapImage = ImageManipUtils.convertMatToBitmap(resultImage);
-//                String imageBase64 = ImageManipUtils.convertToBase64(bitmapImage);
-//                ImageScanResponse result = new ImageScanResponse(response.getGrid(), response.getResultImage(), imageBase64);
-//                successCallback.invoke(result.toJsonString());
-//            } else {
-//                errorCallback.invoke("Unsupported Image");
-//            }
+            Bitmap image = BitmapLoader.decodeBase64(imageAsBase64);
+            timer.stop(Stage.DECODE);
+            successCallback.invoke(scan(image, PreviewOptions.legacy(), timer));
+        } catch (Exception e) {
+            errorCallback.invoke(e.getMessage());
+        }
+    }
 
+    /**
+     * same as scanSudoku but decodes the photo straight from a file path or
+     * content uri, subsampled to the resolution the pipeline works at
+     *
+     * @param options
+     *            preview options (see PreviewOptions), null for the grid only
+     */
+    @ReactMethod
+    public void scanSudokuFromUri(String imageUri, ReadableMap options, Callback errorCallback, Callback successCallback) {
+        try {
+            PreviewOptions previewOptions = PreviewOptions.fromMap(options);
+            StageTimer timer = pipelineStats.newTimer();
+            timer.start(Stage.TOTAL);
+            timer.start(Stage.DECODE);
+            Bitmap image = BitmapLoader.decode(reactContext, imageUri,
+                    BitmapLoader.SCAN_MAX_DIMENSION);
+            timer.stop(Stage.DECODE);
+            successCallback.invoke(scan(image, previewOptions, timer));
         } catch (Exception e) {
             errorCallback.invoke(e.getMessage());
         }
     }
 
+    /**
+     * runs scanSudokuFromUri on the scan executor; the promise resolves with
+     * the same JSON string and can be cancelled with cancelScan(scanId)
+     *
+     * @param scanId
+     *            id chosen by JS, unique among running scans
+     */
+    @ReactMethod
+    public void scanSudokuAsync(String scanId, final String imageUri, ReadableMap options, Promise promise) {
+        final PreviewOptions previewOptions;
+        try {
+            previewOptions = PreviewOptions.fromMap(options);
+        } catch (IllegalArgumentException e) {
+            promise.reject(ScanScheduler.E_SCAN_FAILED, e.getMessage());
+            return;
+        }
+        scanScheduler.submit(scanId, new ScanScheduler.ScanJob() {
+            @Override
+            public Object run(CancellationToken token) throws Exception {
+                StageTimer timer = pipelineStats.newTimer();
+                timer.start(Stage.TOTAL);
+                timer.start(Stage.DECODE);
+                Bitmap image = BitmapLoader.decode(reactContext, imageUri,
+                        BitmapLoader.SCAN_MAX_DIMENSION);
+                timer.stop(Stage.DECODE);
+                token.throwIfCancelled();
+                return scan(image, previewOptions, token, timer);
+            }
+        }, promise);
+    }
+
+    /**
+     * scans a burst of photos of the same puzzle on the scan executor and
+     * reads the sharpest one (see BurstScanner). The photos are decoded one
+     * at a time. Resolves with a JSON string {grid, frame}, frame being the
+     * index of the photo that was read; can be cancelled with
+     * cancelScan(scanId)
+     *
+     * @param imageUris
+     *            file paths or content uris in the order they were taken
+     */
+    @ReactMethod
+    public void scanBurstAsync(String scanId, ReadableArray imageUris, Promise promise) {
+        final List<ImageSource> frames = new ArrayList<ImageSource>(imageUris.size());
+        for (int i = 0; i < imageUris.size(); i++) {
+            final String imageUri = imageUris.getString(i);
+            frames.add(new ImageSource() {
+                @Override
+                public Mat toRgba(MatPool.Scope scope) throws IOException {
+                    Bitmap image = BitmapLoader.decode(reactContext, imageUri,
+                            BitmapLoader.SCAN_MAX_DIMENSION);
+                    return new BitmapImageSource(image).toRgba(scope);
+                }
+            });
+        }
+        scanScheduler.submit(scanId, new ScanScheduler.ScanJob() {
+            @Override
+            public Object run(CancellationToken token) throws Exception {
+                StageTimer timer = pipelineStats.newTimer();
+                timer.start(Stage.TOTAL);
+                ImageManipulation imgManip = new ImageManipulation(reactContext, null,
+                        createRecognizerFactory());
+                imgManip.setStageTimer(timer);
+                BurstScanner burst = new BurstScanner(imgManip, gridDetector, sharpnessMeter);
+                burst.setCancellationToken(token);
+                int[][] grid = burst.scan(frames, matPool);
+                String json = new BurstScanResponse(grid, burst.getSharpestFrame())
+                        .toJsonString();
+                timer.stop(Stage.TOTAL);
+                timer.finish();
+                return json;
+            }
+        }, promise);
+    }
+
+    /**
+     * runs checkForBlurryImageFromUri on the scan executor; the promise
+     * resolves with the same boolean and can be cancelled with cancelScan
+     */
+    @ReactMethod
+    public void checkForBlurryImageAsync(String scanId, final String imageUri, Promise promise) {
+        scanScheduler.submit(scanId, new ScanScheduler.ScanJob() {
+            @Override
+            public Object run(CancellationToken token) throws Exception {
+                Bitmap image = BitmapLoader.decode(reactContext, imageUri,
+                        BitmapLoader.BLUR_CHECK_MAX_DIMENSION);
+                token.throwIfCancelled();
+                return isBlurry(image);
+            }
+        }, promise);
+    }
+
+    /**
+     * scores the photo's sharpness on the scan executor; resolves with
+     * {score, blurry, gridFound}. score is the Laplacian variance, higher is
+     * sharper
+     *
+     * @param options
+     *            {grid: true} scores only the detected grid when there is one
+     */
+    @ReactMethod
+    public void measureSharpnessAsync(String scanId, final String imageUri,
+                                      final ReadableMap options, Promise promise) {
+        scanScheduler.submit(scanId, new ScanScheduler.ScanJob() {
+            @Override
+            public Object run(CancellationToken token) throws Exception {
+                Bitmap image = BitmapLoader.decode(reactContext, imageUri,
+                        BitmapLoader.BLUR_CHECK_MAX_DIMENSION);
+                token.throwIfCancelled();
+                boolean gridOnly = options != null && options.hasKey("grid")
+                        && options.getBoolean("grid");
+                double[] sharpness = sharpness(image, gridOnly);
+                WritableMap result = Arguments.createMap();
+                result.putDouble("score", sharpness[0]);
+                result.putBoolean("blurry", sharpnessMeter.isBlurry(sharpness[0]));
+                result.putBoolean("gridFound", sharpness[1] != 0);
+                return result;
+            }
+        }, promise);
+    }
+
+    /**
+     * cancels a queued or running async scan; its promise is rejected with
+     * E_SCAN_CANCELLED
+     */
+    @ReactMethod
+    public void cancelScan(String scanId) {
+        scanScheduler.cancel(scanId);
+    }
+
+    /**
+     * turns recording of per-stage scan timings on or off; off by default
+     */
+    @ReactMethod
+    public void setPipelineStatsEnabled(boolean enabled) {
+        pipelineStats.setEnabled(enabled);
+    }
+
+    /**
+     * resolves with {enabled, stages} where stages maps each stage that ran
+     * (decode, preprocess, grid, blobs, ocr, preview, total) to
+     * {count, meanMs, p50Ms, p90Ms, p99Ms, maxMs}, plus meanBytes, p50Bytes
+     * and p99Bytes where allocations are counted. Only completed scans are
+     * recorded
+     *
+     * @param reset
+     *            clear the stats after reading them
+     */
+    @ReactMethod
+    public void getPipelineStats(boolean reset, Promise promise) {
+        PipelineStats.Snapshot snapshot = reset ? pipelineStats.snapshotAndReset()
+                : pipelineStats.snapshot();
+        WritableMap stages = Arguments.createMap();
+        for (Stage stage : Stage.values()) {
+            Histogram nanos = snapshot.getNanos(stage);
+            if (nanos.getCount() == 0) {
+                continue;
+            }
+            WritableMap stats = Arguments.createMap();
+            stats.putDouble("count", nanos.getCount());
+            stats.putDouble("meanMs", nanos.getMean() / 1e6);
+            stats.putDouble("p50Ms", nanos.getPercentile(50) / 1e6);
+            stats.putDouble("p90Ms", nanos.getPercentile(90) / 1e6);
+            stats.putDouble("p99Ms", nanos.getPercentile(99) / 1e6);
+            stats.putDouble("maxMs", nanos.getMax() / 1e6);
+            Histogram bytes = snapshot.getBytes(stage);
+            if (bytes.getCount() > 0) {
+                stats.putDouble("meanBytes", bytes.getMean());
+                stats.putDouble("p50Bytes", bytes.getPercentile(50));
+                stats.putDouble("p99Bytes", bytes.getPercentile(99));
+            }
+            stages.putMap(stage.key(), stats);
+        }
+        WritableMap result = Arguments.createMap();
+        result.putBoolean("enabled", pipelineStats.isEnabled());
+        result.putMap("stages", stages);
+        promise.resolve(result);
+    }
+
+    private boolean isBlurry(Bitmap image) {
+        double score = sharpness(image, false)[0];
+        return sharpnessMeter.isBlurry(score);
+    }
+
+    /**
+     * returns {score, gridFound} for the image: Laplacian variance of the
+     * downsampled grey image, or of the grid's region when gridOnly is set and
+     * a grid is found
+     */
+    private double[] sharpness(Bitmap image, boolean gridOnly) {
+        MatPool.Scope scope = matPool.openScope();
+        try {
+            Mat grey = BitmapUtils.preprocess(image, scope).getGrey();
+            if (gridOnly) {
+                List<Point> corners = gridDetector.detect(grey, scope);
+                if (corners != null) {
+                    return new double[] { sharpnessMeter.score(grey, corners, scope), 1 };
+                }
+            }
+            return new double[] { sharpnessMeter.score(grey, scope), 0 };
+        } finally {
+            scope.close();
+        }
+    }
+
+    private String scan(Bitmap image, PreviewOptions previewOptions,
+                        StageTimer timer) throws IOException {
+        return scan(image, previewOptions, new CancellationToken(), timer);
+    }
+
+    /**
+     * runs the whole scan on the image and returns the JSON response
+     *
+     * @param timer
+     *            timer of the scan, with Stage.TOTAL started; finished here
+     *            once the scan succeeds
+     * @throws ScanCancelledException
+     *             if token is cancelled before the scan finishes
+     */
+    private String scan(Bitmap image, PreviewOptions previewOptions,
+                        CancellationToken token, StageTimer timer) throws IOException {
+        ImageManipulation imgManip = new ImageManipulation(reactContext, image,
+                createRecognizerFactory());
+        imgManip.setCancellationToken(token);
+        imgManip.setStageTimer(timer);
+        MatPool.Scope scope = matPool.openScope();
+        try {
+            imgManip.setMatScope(scope);
+            timer.start(Stage.PREPROCESS);
+            PreprocessedFrame frame = BitmapUtils.preprocess(image, scope);
+            timer.stop(Stage.PREPROCESS);
+            imgManip.setPreprocessedFrame(frame);
+            imgManip.setGridDetector(gridDetector);
+
+            token.throwIfCancelled();
+
+            int[][] grid = imgManip.getSudokuGridNums();
+            token.throwIfCancelled();
+            // the preview is the full threshold image, only computed when a
+            // preview is asked for
+            timer.start(Stage.PREVIEW);
+            Mat resultImage = previewOptions.isEnabled() ? frame.getBinary() : null;
+            PreviewEncoder.Preview preview = previewEncoder.encode(resultImage,
+                    previewOptions, scope);
+            timer.stop(Stage.PREVIEW);
+            ImageScanResponse result = new ImageScanResponse(grid, resultImage,
+                    preview == null ? null : preview.getBase64(),
+                    preview == null ? null : preview.getUri());
+            String json = result.toJsonString();
+            timer.stop(Stage.TOTAL);
+            timer.finish();
+            return json;
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * returns recognizers for one scan, or null to let ImageManipulation use
+     * Tesseract engines
+     */
+    private DigitRecognizerFactory createRecognizerFactory() throws IOException {
+        if (!RECOGNIZER_PROTOTYPE.equals(digitRecognizer)) {
+            return null;
+        }
+        synchronized (this) {
+            if (digitPrototypes == null) {
+                digitPrototypes = DigitPrototypes.load(
+                        reactContext.getAssets().open(DigitPrototypes.ASSET_NAME));
+            }
+        }
+        return new DigitClassifierFactory(digitPrototypes);
+    }
+
     private void setGreenFrame(List<MatOfPoint> contours, int biggestPolygonIndex, Mat originalImage) {
         Scalar color = new Scalar(0, 255, 0, 255);
         Imgproc.drawContours(originalImage, contours, biggestPolygonIndex, color, 3);
@@ -152,8 +475,18 @@ public class RNOpenCvLibraryModule extends ReactContextBaseJavaModule {
 
 final class ImageScanResponse extends SudokuGridResponse {
     private String imageBase64;
-    public ImageScanResponse(int[][] grid, Mat result, String imageBase64) {
+    private String imageUri;
+    public ImageScanResponse(int[][] grid, Mat result, String imageBase64, String imageUri) {
         super(grid, result);
         this.imageBase64 = imageBase64;
+        this.imageUri = imageUri;
+    }
+}
+
+final class BurstScanResponse extends SudokuGridResponse {
+    private int frame;
+    public BurstScanResponse(int[][] grid, int frame) {
+        super(grid, null);
+        this.frame = frame;
     }
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.reactlibrary;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.reactlibrary.solver.BitmaskSolver;
+import com.reactlibrary.solver.DancingLinks;
+import com.reactlibrary.solver.PuzzleGenerator;
+
+/**
+ * Solves and generates sudoku grids natively so JS does not backtrack on its
+ * own thread. The work runs on a shared pool, never on the native modules
+ * thread, and each promise is settled from there
+ */
+public class RNSudokuSolverModule extends ReactContextBaseJavaModule {
+
+    public static final String E_INVALID_GRID = "E_INVALID_GRID";
+    public static final String E_UNSOLVABLE = "E_UNSOLVABLE";
+    public static final String E_SOLVE_FAILED = "E_SOLVE_FAILED";
+    public static final String E_INVALID_OPTIONS = "E_INVALID_OPTIONS";
+    public static final String E_GENERATE_FAILED = "E_GENERATE_FAILED";
+    public static final int MAX_GENERATE_COUNT = 1000;
+
+    // created on first use, shared by every solveSudoku and generateSudoku
+    // call and shut down with the catalyst instance
+    private ForkJoinPool solverPool;
+
+    public RNSudokuSolverModule(ReactApplicationContext reactContext) {
+        super(reactContext);
+    }
+
+    @Override
+    public String getName() {
+        return "RNSudokuSolver";
+    }
+
+    /**
+     * resolves with the solved grid, solved off the native modules thread;
+     * rejects with E_INVALID_GRID if grid is not N rows of N digits 0-N
+     * (N = 4, 9, 16 or 25) without conflicting givens, with E_UNSOLVABLE or
+     * with E_SOLVE_FAILED. 9x9 grids go to BitmaskSolver, the other sizes to
+     * DancingLinks
+     *
+     * @param grid
+     *            N rows of N numbers, 0 for empty cells
+     */
+    @ReactMethod
+    public void solveSudoku(ReadableArray grid, final Promise promise) {
+        final int[] board;
+        final int size;
+        try {
+            size = gridSize(grid);
+            board = readBoard(grid, size);
+        } catch (IllegalArgumentException e) {
+            promise.reject(E_INVALID_GRID, e.getMessage());
+            return;
+        }
+        try {
+            pool().submit(new Runnable() {
+                @Override
+                public void run() {
+                    boolean solved;
+                    try {
+                        solved = size == BitmaskSolver.SIZE
+                                ? new BitmaskSolver().solve(board)
+                                : new DancingLinks((int) Math.sqrt(size)).solve(board);
+                    } catch (IllegalArgumentException e) {
+                        promise.reject(E_INVALID_GRID, e.getMessage());
+                        return;
+                    } catch (Throwable e) {
+                        promise.reject(E_SOLVE_FAILED, e.getMessage());
+                        return;
+                    }
+                    if (!solved) {
+                        promise.reject(E_UNSOLVABLE, "Sudoku has no solution");
+                        return;
+                    }
+                    promise.resolve(writeGrid(board, size));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(E_SOLVE_FAILED, "Sudoku solver is shut down");
+        }
+    }
+
+    /**
+     * resolves with an array of { puzzle, solution, clues } for 9x9 puzzles
+     * with one solution each, generated in parallel off the native modules
+     * thread; rejects with E_INVALID_OPTIONS or E_GENERATE_FAILED
+     *
+     * @param options
+     *            count (1 to 1000, default 1), clues (17 to 81, default 26;
+     *            puzzles keep more if no more cells can go), symmetry (none,
+     *            rotational, mirror or diagonal, default none) and seed
+     */
+    @ReactMethod
+    public void generateSudoku(ReadableMap options, final Promise promise) {
+        int count = 1;
+        int clues = PuzzleGenerator.DEFAULT_CLUES;
+        PuzzleGenerator.Symmetry symmetry = PuzzleGenerator.Symmetry.NONE;
+        long seed = System.nanoTime();
+        try {
+            if (options != null) {
+                if (options.hasKey("count") && !options.isNull("count")) {
+                    count = options.getInt("count");
+                }
+                if (options.hasKey("clues") && !options.isNull("clues")) {
+                    clues = options.getInt("clues");
+                }
+                if (options.hasKey("symmetry") && !options.isNull("symmetry")) {
+                    symmetry = PuzzleGenerator.Symmetry.valueOf(
+                            options.getString("symmetry").toUpperCase(Locale.US));
+                }
+                if (options.hasKey("seed") && !options.isNull("seed")) {
+                    seed = (long) options.getDouble("seed");
+                }
+            }
+            if (count < 1 || count > MAX_GENERATE_COUNT) {
+                throw new IllegalArgumentException("Count must be 1 to "
+                        + MAX_GENERATE_COUNT + ": " + count);
+            }
+        } catch (IllegalArgumentException e) {
+            promise.reject(E_INVALID_OPTIONS, e.getMessage());
+            return;
+        }
+
+        final int batchCount = count;
+        final int batchClues = clues;
+        final PuzzleGenerator.Symmetry batchSymmetry = symmetry;
+        final long batchSeed = seed;
+        final ForkJoinPool pool = pool();
+        try {
+            pool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    List<PuzzleGenerator.Puzzle> puzzles;
+                    try {
+                        puzzles = PuzzleGenerator.generateBatch(pool, batchCount,
+                                batchClues, batchSymmetry, batchSeed);
+                    } catch (IllegalArgumentException e) {
+                        promise.reject(E_INVALID_OPTIONS, e.getMessage());
+                        return;
+                    } catch (Throwable e) {
+                        promise.reject(E_GENERATE_FAILED, e.getMessage());
+                        return;
+                    }
+                    promise.resolve(writePuzzles(puzzles));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            promise.reject(E_GENERATE_FAILED, "Sudoku generator is shut down");
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (solverPool == null) {
+            solverPool = new ForkJoinPool();
+        }
+        return solverPool;
+    }
+
+    @Override
+    public void onCatalystInstanceDestroy() {
+        synchronized (this) {
+            if (solverPool != null) {
+                solverPool.shutdownNow();
+            }
+        }
+    }
+
+    static WritableArray writePuzzles(List<PuzzleGenerator.Puzzle> puzzles) {
+        WritableArray result = Arguments.createArray();
+        for (PuzzleGenerator.Puzzle puzzle : puzzles) {
+            WritableMap map = Arguments.createMap();
+            map.putArray("puzzle", writeGrid(puzzle.getPuzzle(), BitmaskSolver.SIZE));
+            map.putArray("solution", writeGrid(puzzle.getSolution(), BitmaskSolver.SIZE));
+            map.putInt("clues", puzzle.getClues());
+            result.pushMap(map);
+        }
+        return result;
+    }
+
+    /**
+     * returns number of rows of grid if it is a supported size
+     */
+    static int gridSize(ReadableArray grid) {
+        if (grid == null) {
+            throw new IllegalArgumentException("Grid is missing");
+        }
+        int size = grid.size();
+        int box = (int) Math.sqrt(size);
+        if (box < 2 || box > DancingLinks.MAX_BOX_SIZE || box * box != size) {
+            throw new IllegalArgumentException("Grid must have 4, 9, 16 or 25 rows: "
+                    + size);
+        }
+        return size;
+    }
+
+    static int[] readBoard(ReadableArray grid, int size) {
+        int[] board = new int[size * size];
+        for (int row = 0; row < size; row++) {
+            ReadableArray cells = grid.getArray(row);
+            if (cells == null || cells.size() != size) {
+                throw new IllegalArgumentException("Row " + row + " must have "
+                        + size + " cells");
+            }
+            for (int col = 0; col < size; col++) {
+                board[row * size + col] = cells.getInt(col);
+            }
+        }
+        return board;
+    }
+
+    static WritableArray writeGrid(int[] board, int size) {
+        WritableArray rows = Arguments.createArray();
+        for (int row = 0; row < size; row++) {
+            WritableArray cells = Arguments.createArray();
+            for (int col = 0; col < size; col++) {
+                cells.pushInt(board[row * size + col]);
+            }
+            rows.pushArray(cells);
+        }
+        return rows;
+    }
+}
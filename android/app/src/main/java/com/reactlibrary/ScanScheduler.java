@@ -0,0 +1,159 @@
+package com.reactlibrary;
+
+import com.facebook.react.bridge.Promise;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs scans off the React Native native-modules thread on a small
+ * dedicated executor with a bounded queue. Every scan is registered under
+ * the id chosen by JS so it can be cancelled: a queued scan is dropped at
+ * once, a running one stops at its next CancellationToken check. Each
+ * promise is settled exactly once
+ */
+public class ScanScheduler {
+
+    public static final String E_SCAN_CANCELLED = "E_SCAN_CANCELLED";
+    public static final String E_SCAN_FAILED = "E_SCAN_FAILED";
+    public static final String E_SCAN_QUEUE_FULL = "E_SCAN_QUEUE_FULL";
+    public static final String E_SCAN_ID_IN_USE = "E_SCAN_ID_IN_USE";
+
+    private static final String TAG = "ScanScheduler";
+
+    /**
+     * work of one scan; should check the token between stages
+     */
+    public interface ScanJob {
+        Object run(CancellationToken token) throws Exception;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ScanTask> scans = new ConcurrentHashMap<String, ScanTask>();
+
+    /**
+     * @param threads
+     *            scans running at the same time
+     * @param queueLimit
+     *            scans waiting for a thread before new ones are rejected
+     */
+    public ScanScheduler(int threads, int queueLimit) {
+        final AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(queueLimit), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "sudoku-scan-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * queues job under scanId; promise resolves with the job's result or is
+     * rejected with one of the E_SCAN codes
+     */
+    public void submit(final String scanId, ScanJob job, Promise promise) {
+        ScanTask task = new ScanTask(scanId, job, promise);
+        if (scans.putIfAbsent(scanId, task) != null) {
+            promise.reject(E_SCAN_ID_IN_USE, "Scan " + scanId + " is already running");
+            return;
+        }
+        try {
+            task.future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            scans.remove(scanId, task);
+            task.reject(E_SCAN_QUEUE_FULL, "Too many scans queued");
+        }
+    }
+
+    /**
+     * cancels scan scanId if it is queued or running
+     *
+     * @return true if a scan with that id was found
+     */
+    public boolean cancel(String scanId) {
+        ScanTask task = scans.remove(scanId);
+        if (task == null) {
+            return false;
+        }
+        task.cancel();
+        executor.purge();
+        return true;
+    }
+
+    /**
+     * cancels every queued and running scan
+     */
+    public void cancelAll() {
+        List<String> ids = new ArrayList<String>(scans.keySet());
+        for (String id : ids) {
+            cancel(id);
+        }
+    }
+
+    private final class ScanTask implements Runnable {
+        private final String scanId;
+        private final ScanJob job;
+        private final Promise promise;
+        private final CancellationToken token = new CancellationToken();
+        private final AtomicBoolean settled = new AtomicBoolean(false);
+        private volatile Future<?> future;
+
+        ScanTask(String scanId, ScanJob job, Promise promise) {
+            this.scanId = scanId;
+            this.job = job;
+            this.promise = promise;
+        }
+
+        @Override
+        public void run() {
+            try {
+                token.throwIfCancelled();
+                Object result = job.run(token);
+                token.throwIfCancelled();
+                if (settled.compareAndSet(false, true)) {
+                    promise.resolve(result);
+                }
+            } catch (ScanCancelledException e) {
+                reject(E_SCAN_CANCELLED, e.getMessage());
+            } catch (Throwable e) {
+                // out of memory or a native error included: the promise must
+                // still be settled or JS waits forever
+                Log.e(TAG, "scan " + scanId + " failed", e);
+                reject(E_SCAN_FAILED, e.getMessage());
+            } finally {
+                scans.remove(scanId, this);
+            }
+        }
+
+        void cancel() {
+            token.cancel();
+            Future<?> queued = future;
+            // never started: run() will not settle the promise
+            if (queued != null && queued.cancel(false)) {
+                reject(E_SCAN_CANCELLED, "Scan cancelled");
+            }
+        }
+
+        void reject(String code, String message) {
+            if (settled.compareAndSet(false, true)) {
+                promise.reject(code, message);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.reactlibrary.ocr;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.util.Log;
+
+/**
+ * Process-wide owner of the initialized tess-two engines. Loading
+ * eng.traineddata is the slow part of OCR, so engines are initialized once (in
+ * the background when warming up) and handed out to scans with acquire();
+ * the scan must give the engine back with release() and must not use it
+ * afterwards. Idle engines are only ended on host destroy or memory pressure
+ */
+public class OcrEngineManager implements ComponentCallbacks2 {
+
+    private static final String TAG = "OcrEngineManager";
+    private static OcrEngineManager instance;
+
+    private final Context appContext;
+    private final int maxEngines;
+    private final Deque<TessOCR> idle = new ArrayDeque<TessOCR>();
+    private final ExecutorService initExecutor;
+    // engines currently alive, idle or leased
+    private int liveEngines = 0;
+    private int warming = 0;
+    // bumped by shutdown(); leased engines from an older generation are
+    // ended when they come back
+    private int generation = 0;
+
+    OcrEngineManager(Context context, int maxEngines) {
+        this.appContext = context.getApplicationContext();
+        this.maxEngines = maxEngines;
+        this.initExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "ocr-engine-init");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * returns the shared manager; at most one engine per core is created
+     **/
+    public static synchronized OcrEngineManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new OcrEngineManager(context,
+                    Runtime.getRuntime().availableProcessors());
+            instance.appContext.registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * initializes one engine on a background thread if there is no idle one,
+     * so the next scan does not pay for loading the trained data
+     **/
+    public synchronized void warmUp() {
+        if (!idle.isEmpty() || warming > 0 || liveEngines >= maxEngines) {
+            return;
+        }
+        warming++;
+        liveEngines++;
+        final int warmGeneration = generation;
+        initExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                TessOCR engine = createEngine();
+                synchronized (OcrEngineManager.this) {
+                    warming--;
+                    if (engine == null) {
+                        liveEngines--;
+                    } else if (warmGeneration != generation) {
+                        liveEngines--;
+                        engine.endTessOCR();
+                    } else {
+                        idle.push(engine);
+                    }
+                    OcrEngineManager.this.notifyAll();
+                }
+            }
+        });
+    }
+
+    /**
+     * hands out an initialized engine owned by the caller until release();
+     * waits for a warming or leased engine when all are busy
+     *
+     * @throws IllegalStateException
+     *             if the engine could not be initialized
+     **/
+    public TessOCR acquire() {
+        synchronized (this) {
+            while (idle.isEmpty()) {
+                if (warming == 0 && liveEngines < maxEngines) {
+                    // nothing on the way; initialize on the caller thread
+                    liveEngines++;
+                    break;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted waiting for OCR engine");
+                }
+            }
+            if (!idle.isEmpty()) {
+                return idle.pop();
+            }
+        }
+
+        TessOCR engine = createEngine();
+        if (engine == null) {
+            synchronized (this) {
+                liveEngines--;
+                notifyAll();
+            }
+            throw new IllegalStateException("OCR engine failed to initialize");
+        }
+        return engine;
+    }
+
+    /**
+     * takes back an engine handed out by acquire()
+     **/
+    public synchronized void release(TessOCR engine) {
+        if (engine == null) {
+            return;
+        }
+        if (engine.getGeneration() != generation || engine.isEnded()) {
+            liveEngines--;
+            if (!engine.isEnded()) {
+                engine.endTessOCR();
+            }
+        } else {
+            idle.push(engine);
+        }
+        notifyAll();
+    }
+
+    /**
+     * ends every idle engine; leased engines stay usable
+     **/
+    public synchronized void trimIdle() {
+        Log.d(TAG, "ending " + idle.size() + " idle engines");
+        while (!idle.isEmpty()) {
+            idle.pop().endTessOCR();
+            liveEngines--;
+        }
+        notifyAll();
+    }
+
+    /**
+     * ends idle engines now and leased ones when they are released; the
+     * manager can be warmed up again afterwards
+     **/
+    public synchronized void shutdown() {
+        generation++;
+        trimIdle();
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            trimIdle();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        trimIdle();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+    }
+
+    private TessOCR createEngine() {
+        int engineGeneration;
+        synchronized (this) {
+            engineGeneration = generation;
+        }
+        TessOCR engine = new TessOCR(appContext, engineGeneration);
+        engine.initOCR();
+        if (!engine.isInit()) {
+            return null;
+        }
+        return engine;
+    }
+}
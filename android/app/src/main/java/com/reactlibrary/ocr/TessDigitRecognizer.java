@@ -0,0 +1,91 @@
+package com.reactlibrary.ocr;
+
+import java.util.List;
+
+import org.opencv.core.Mat;
+
+import android.graphics.Bitmap;
+import android.util.Pair;
+
+import com.reactlibrary.BitmapUtils;
+
+/**
+ * DigitRecognizer backed by a tess-two engine; the caller keeps ownership of
+ * the engine
+ */
+public class TessDigitRecognizer implements CandidateRecognizer {
+
+    private final TessOCR mOCR;
+    // best confidence seen per digit by recognizeCandidates
+    private final float[] mScores = new float[10];
+
+    public TessDigitRecognizer(TessOCR ocr) {
+        mOCR = ocr;
+    }
+
+    public TessOCR getEngine() {
+        return mOCR;
+    }
+
+    @Override
+    public int recognize(Mat digit) {
+        Bitmap b = BitmapUtils.convertMatToBitmap(digit);
+        //FileSaver.storeImage(b, count + "");
+        int ans = Integer.parseInt(mOCR.doOCR(b));
+        if (ans > 9) {
+            ans = trimNum(ans);
+        }
+        return ans;
+    }
+
+    @Override
+    public int recognizeCandidates(Mat digit, int[] digits, float[] confidences) {
+        Bitmap b = BitmapUtils.convertMatToBitmap(digit);
+        List<Pair<String, Double>> choices = mOCR.doOCRChoices(b);
+        for (int d = 0; d < mScores.length; d++) {
+            mScores[d] = 0;
+        }
+        for (Pair<String, Double> choice : choices) {
+            String text = choice.first;
+            if (text == null || text.length() != 1 || text.charAt(0) < '1'
+                    || text.charAt(0) > '9') {
+                continue;
+            }
+            // Tesseract reports 0-100
+            float confidence = (float) Math.min(1, Math.max(0.001, choice.second / 100));
+            int d = text.charAt(0) - '0';
+            mScores[d] = Math.max(mScores[d], confidence);
+        }
+
+        int count = 0;
+        while (count < digits.length) {
+            int best = 0;
+            for (int d = 1; d < mScores.length; d++) {
+                if (mScores[d] > mScores[best]) {
+                    best = d;
+                }
+            }
+            if (best == 0) {
+                break;
+            }
+            digits[count] = best;
+            confidences[count] = mScores[best];
+            mScores[best] = 0;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * safety method that trims integer to single digit
+     *
+     * @param n
+     * @return
+     */
+    private int trimNum(int n) {
+        while (n > 9) {
+            n = n / 10;
+        }
+        return n;
+    }
+}
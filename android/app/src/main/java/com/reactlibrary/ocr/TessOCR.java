@@ -4,12 +4,16 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
 
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.os.Environment;
 import android.util.Log;
+import android.util.Pair;
 
+import com.googlecode.tesseract.android.ResultIterator;
 import com.googlecode.tesseract.android.TessBaseAPI;
 
 /**
@@ -23,6 +27,7 @@ public class TessOCR {
     private TessBaseAPI tessAPI;
     private boolean isInit = false;
     private boolean isEnded = false;
+    private final int generation;
 
     public final String TRAINED_DATA_DIRECTORY = "tessdata/";
     public final String TRAINED_DATA_FILENAME = "eng.traineddata";
@@ -35,8 +40,17 @@ public class TessOCR {
      * class methods
      **/
     public TessOCR(Context context) {
+        this(context, 0);
+    }
+
+    /**
+     * @param generation
+     *            OcrEngineManager generation the engine belongs to
+     **/
+    TessOCR(Context context, int generation) {
         DATA_PATH = Environment.getExternalStorageDirectory()
                 + "/Android/data/" + context.getPackageName() + "/assets";
+        this.generation = generation;
     }
 
     /**
@@ -51,6 +65,8 @@ public class TessOCR {
             // datapath is in parent directory of tessdata
             tessAPI.init(DATA_PATH, "eng");
             tessAPI.setVariable("tessedit_char_whitelist", "123456789");
+            // keep the alternatives of every symbol for doOCRChoices
+            tessAPI.setVariable("save_blob_choices", "T");
             isInit = true;
         } catch(Exception exception) {
             Log.e("TESSERACT", exception.getMessage());
@@ -65,34 +81,47 @@ public class TessOCR {
         return isEnded;
     }
 
+    int getGeneration() {
+        return generation;
+    }
+
     public String doOCR(Bitmap bmp) {
         tessAPI.setImage(bmp);
         String result = tessAPI.getUTF8Text();
         return result;
     }
 
-    public String doOCR(byte[][] byteArray) {
-        Log.d("doing OCR", "byte array");
-        byte[] stream = convertToByteStream(byteArray);
-        tessAPI.setImage(stream, byteArray[0].length, byteArray.length, 1, 1);
-        String result = tessAPI.getUTF8Text();
-        return result;
+    /**
+     * recognizes bmp and returns the alternatives Tesseract weighed for its
+     * first symbol with their confidences (0-100), in no particular order;
+     * falls back to the recognized text and the mean confidence when there
+     * are no alternatives, and to an empty list when nothing was read
+     **/
+    public List<Pair<String, Double>> doOCRChoices(Bitmap bmp) {
+        tessAPI.setImage(bmp);
+        String text = tessAPI.getUTF8Text();
+        ResultIterator iterator = tessAPI.getResultIterator();
+        if (iterator != null) {
+            try {
+                iterator.begin();
+                List<Pair<String, Double>> choices = iterator.getSymbolChoicesAndConfidence();
+                if (choices != null && !choices.isEmpty()) {
+                    return choices;
+                }
+            } finally {
+                iterator.delete();
+            }
+        }
+        if (text == null || text.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(new Pair<String, Double>(
+                text.trim().substring(0, 1), (double) tessAPI.meanConfidence()));
     }
 
     public void endTessOCR() {
         tessAPI.end();
+        isInit = false;
         isEnded = true;
     }
-
-    public static byte[] convertToByteStream(byte[][] byteArray) {
-        int index = 0;
-        byte[] stream = new byte[byteArray.length * byteArray[0].length];
-        for (int i = 0; i < byteArray.length; i++) {
-            for (int j = 0; j < byteArray[0].length; j++) {
-                stream[index] = byteArray[i][j];
-                index++;
-            }
-        }
-        return stream;
-    }
 }
@@ -0,0 +1,24 @@
+package com.reactlibrary.ocr;
+
+/**
+ * Creates TessDigitRecognizers around engines leased from OcrEngineManager;
+ * release() gives the engine back
+ */
+public class TessRecognizerFactory implements DigitRecognizerFactory {
+
+    private final OcrEngineManager mEngines;
+
+    public TessRecognizerFactory(OcrEngineManager engines) {
+        mEngines = engines;
+    }
+
+    @Override
+    public DigitRecognizer create() {
+        return new TessDigitRecognizer(mEngines.acquire());
+    }
+
+    @Override
+    public void release(DigitRecognizer recognizer) {
+        mEngines.release(((TessDigitRecognizer) recognizer).getEngine());
+    }
+}
@@ -0,0 +1,137 @@
+package com.reactlibrary.benchmarks;
+
+/**
+ * Java port of the backtracking solver in src/utils/sudoku.js, which the app
+ * runs on platforms without the native solver: cells are filled row by row
+ * trying 1 to N, checking the row, column and box by scanning them. The
+ * {value, type} cell objects become an int matrix and the animation steps a
+ * counter, so the port measures the algorithm rather than the JS object
+ * churn
+ */
+public class BacktrackingSolver {
+
+    private final int n;
+    private final int srn;
+    private final int[][] matrix;
+    private int steps;
+    private int stepLimit = Integer.MAX_VALUE;
+
+    public BacktrackingSolver(int n) {
+        this.n = n;
+        this.srn = (int) Math.sqrt(n);
+        this.matrix = new int[n][n];
+    }
+
+    /**
+     * solves the row-major board in place
+     *
+     * @return false if it has no solution or the step limit was reached
+     */
+    public boolean solve(int[] board) {
+        for (int row = 0; row < n; row++) {
+            System.arraycopy(board, row * n, matrix[row], 0, n);
+        }
+        steps = 0;
+        int[] next = findNextEmpty(0, 0);
+        boolean solved = next == null || solve(next[0], next[1]);
+        for (int row = 0; row < n; row++) {
+            System.arraycopy(matrix[row], 0, board, row * n, n);
+        }
+        return solved;
+    }
+
+    /**
+     * returns digits placed and taken back by the last solve, the number of
+     * animation steps sudoku.js records
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * makes solve give up once it has taken limit steps; sudoku.js has no
+     * such limit, it is there to pick the puzzles the port can finish
+     */
+    public void setStepLimit(int limit) {
+        stepLimit = limit;
+    }
+
+    private boolean solve(int row, int col) {
+        for (int num = 1; num <= n; num++) {
+            if (steps >= stepLimit) {
+                return false;
+            }
+            if (checkIfSafe(row, col, num)) {
+                matrix[row][col] = num;
+                steps++;
+
+                int[] next = findNextEmpty(row, col + 1);
+                if (next == null) {
+                    return true;
+                }
+                if (solve(next[0], next[1])) {
+                    return true;
+                }
+
+                matrix[row][col] = 0;
+                steps++;
+            }
+        }
+        return false;
+    }
+
+    private int[] findNextEmpty(int row, int col) {
+        if (col >= n) {
+            row++;
+            col = 0;
+        }
+        if (row >= n) {
+            return null;
+        }
+        while (matrix[row][col] != 0) {
+            col++;
+            if (row == n - 1 && col >= n) {
+                return null;
+            }
+            if (col >= n) {
+                row++;
+                col = 0;
+            }
+        }
+        return new int[] { row, col };
+    }
+
+    private boolean checkIfSafe(int row, int col, int num) {
+        return unUsedInRow(row, num) && unUsedInCol(col, num)
+                && unUsedInBox(row - row % srn, col - col % srn, num);
+    }
+
+    private boolean unUsedInRow(int row, int num) {
+        for (int i = 0; i < n; i++) {
+            if (matrix[row][i] == num) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean unUsedInCol(int col, int num) {
+        for (int i = 0; i < n; i++) {
+            if (matrix[i][col] == num) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean unUsedInBox(int row, int col, int num) {
+        for (int i = 0; i < srn; i++) {
+            for (int j = 0; j < srn; j++) {
+                if (matrix[row + i][col + j] == num) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
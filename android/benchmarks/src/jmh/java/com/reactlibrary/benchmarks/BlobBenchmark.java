@@ -0,0 +1,64 @@
+package com.reactlibrary.benchmarks;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.reactlibrary.imageproc.BlobExtract;
+
+/**
+ * BlobExtract on the warped grid. findCleanNumbers erases noise inside the
+ * grid it is given, so it works on a fresh copy every call
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class BlobBenchmark {
+
+    private final BlobExtract blobExtract = new BlobExtract();
+    private final Mat scratch = new Mat();
+
+    @Setup(Level.Trial)
+    public void setUp(PhotoState state) {
+        // sets the row gap sortRects uses
+        blobExtract.getBoundingRects(state.grid);
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        scratch.release();
+    }
+
+    @Benchmark
+    public List<Rect> getBoundingRects(PhotoState state) {
+        return blobExtract.getBoundingRects(state.grid);
+    }
+
+    @Benchmark
+    public int findCleanNumbers(PhotoState state) {
+        state.grid.copyTo(scratch);
+        Queue<Mat> numbers = blobExtract.findCleanNumbers(scratch, state.rects);
+        int count = numbers.size();
+        for (Mat number : numbers) {
+            number.release();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<Rect> sortRects(PhotoState state) {
+        return blobExtract.sortRects(state.rects);
+    }
+}
@@ -0,0 +1,45 @@
+package com.reactlibrary.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.reactlibrary.PixelView;
+import com.reactlibrary.imageproc.ConnectedComponentLabel;
+
+/**
+ * ConnectedComponentLabel on the warped grid. blobExtract works in place, so
+ * the pixels are copied back first; the copy is a few microseconds of a
+ * 576 x 576 image
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ComponentsBenchmark {
+
+    private final ConnectedComponentLabel ccl = new ConnectedComponentLabel();
+    private byte[] pixels = new byte[0];
+
+    @Benchmark
+    public int blobExtract(PhotoState state) {
+        if (pixels.length != state.gridPixels.length) {
+            pixels = new byte[state.gridPixels.length];
+        }
+        System.arraycopy(state.gridPixels, 0, pixels, 0, pixels.length);
+        return ccl.blobExtract(pixels, state.grid.cols(), state.grid.rows());
+    }
+
+    /**
+     * what a scan calls: reads the Mat's pixels, labels them and marks the
+     * digits for OCR
+     */
+    @Benchmark
+    public PixelView getPixelsForOCR(PhotoState state) {
+        return ccl.getPixelsForOCR(state.grid);
+    }
+}
@@ -0,0 +1,145 @@
+package com.reactlibrary.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.ocr.DigitPrototypes;
+import com.reactlibrary.solver.BitmaskSolver;
+
+/**
+ * The photos the benchmarks run on, read from the corpus directory on the
+ * classpath. The index lists one photo per line as name, file and the
+ * 81-digit puzzle printed on it
+ */
+public final class Corpus {
+
+    public static final String INDEX = "index.txt";
+    private static final String DIR = "/corpus/";
+
+    private static boolean loaded;
+    private static Map<String, Entry> entries;
+
+    private Corpus() {
+    }
+
+    private static class Entry {
+        final String file;
+        final int[] puzzle;
+
+        Entry(String file, int[] puzzle) {
+            this.file = file;
+            this.puzzle = puzzle;
+        }
+    }
+
+    /**
+     * loads the OpenCV native library bundled with the Java bindings
+     */
+    public static synchronized void loadOpenCv() {
+        if (!loaded) {
+            nu.pattern.OpenCV.loadLocally();
+            loaded = true;
+        }
+    }
+
+    /**
+     * returns the photo as RGBA, the layout the app gets from
+     * Utils.bitmapToMat
+     */
+    public static Mat loadRgba(String name) throws IOException {
+        loadOpenCv();
+        MatOfByte bytes = new MatOfByte(read(DIR + entry(name).file));
+        Mat bgr = Imgcodecs.imdecode(bytes, Imgcodecs.IMREAD_COLOR);
+        bytes.release();
+        if (bgr.empty()) {
+            throw new IOException("Cannot decode photo " + name);
+        }
+        Mat rgba = new Mat();
+        Imgproc.cvtColor(bgr, rgba, Imgproc.COLOR_BGR2RGBA);
+        bgr.release();
+        return rgba;
+    }
+
+    /**
+     * returns the puzzle printed on the photo, row-major, 0 for empty
+     */
+    public static int[] puzzle(String name) throws IOException {
+        return entry(name).puzzle.clone();
+    }
+
+    /**
+     * returns the prototypes the app ships for DigitClassifier
+     */
+    public static DigitPrototypes prototypes() throws IOException {
+        InputStream in = Corpus.class.getResourceAsStream("/" + DigitPrototypes.ASSET_NAME);
+        if (in == null) {
+            throw new IOException("Missing " + DigitPrototypes.ASSET_NAME);
+        }
+        return DigitPrototypes.load(in);
+    }
+
+    private static synchronized Entry entry(String name) throws IOException {
+        if (entries == null) {
+            entries = readIndex();
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            throw new IOException("No photo " + name + " in corpus index");
+        }
+        return entry;
+    }
+
+    private static Map<String, Entry> readIndex() throws IOException {
+        Map<String, Entry> index = new LinkedHashMap<String, Entry>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(read(DIR + INDEX)),
+                Charset.forName("US-ASCII")));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length != 3 || fields[2].length() != BitmaskSolver.CELLS) {
+                throw new IOException("Bad corpus index line: " + line);
+            }
+            int[] puzzle = new int[BitmaskSolver.CELLS];
+            for (int i = 0; i < puzzle.length; i++) {
+                puzzle[i] = fields[2].charAt(i) - '0';
+            }
+            index.put(fields[0], new Entry(fields[1], puzzle));
+        }
+        return index;
+    }
+
+    private static byte[] read(String resource) throws IOException {
+        InputStream in = Corpus.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IOException("Missing corpus resource " + resource);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1 << 16];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
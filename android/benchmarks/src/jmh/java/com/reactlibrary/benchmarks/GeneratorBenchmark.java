@@ -0,0 +1,45 @@
+package com.reactlibrary.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.reactlibrary.solver.PuzzleGenerator;
+
+/**
+ * PuzzleGenerator from full grid to unique puzzle. The random sequence is
+ * the same every trial, so runs generate the same puzzles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    @Param({ "30", "24" })
+    public int clues;
+
+    @Param({ "NONE", "ROTATIONAL" })
+    public PuzzleGenerator.Symmetry symmetry;
+
+    private final PuzzleGenerator generator = new PuzzleGenerator();
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(42);
+    }
+
+    @Benchmark
+    public PuzzleGenerator.Puzzle generate() {
+        return generator.generate(clues, symmetry, random);
+    }
+}
@@ -0,0 +1,41 @@
+package com.reactlibrary.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import com.reactlibrary.MatPool;
+import com.reactlibrary.PreprocessedFrame;
+import com.reactlibrary.imageproc.GridExtractor;
+
+/**
+ * SudokuScanner.extractSudokuGrid(Mat): grey, threshold, contour search
+ * and warp, once over the full resolution threshold image and once with the
+ * coarse-to-fine GridDetector the scan module sets
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GridBenchmark {
+
+    @Benchmark
+    public int extractSudokuGrid(PhotoState state) {
+        return extract(state, new GridExtractor(null, state.gridSize));
+    }
+
+    @Benchmark
+    public int extractWithDetector(PhotoState state) {
+        return extract(state, new GridExtractor(state.detector, state.gridSize));
+    }
+
+    private static int extract(PhotoState state, GridExtractor extractor) {
+        MatPool.Scope scope = state.pool.openScope();
+        try {
+            return extractor.extract(PreprocessedFrame.compute(state.rgba, scope), scope).rows();
+        } finally {
+            scope.close();
+        }
+    }
+}
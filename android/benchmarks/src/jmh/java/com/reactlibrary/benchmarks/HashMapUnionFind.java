@@ -1,24 +1,17 @@
-package com.reactlibrary.imageproc;
+package com.reactlibrary.benchmarks;
 
 import java.util.HashMap;
 import java.util.Map;
 
-public class UnionFind {
+/**
+ * UnionFind as it was before it moved to int arrays: boxed labels in two
+ * HashMaps, recursive find and union by size. Kept as the baseline of
+ * UnionFindBenchmark
+ */
+public class HashMapUnionFind {
 
-    private Map<Integer, Integer> parent;
-    private Map<Integer, Integer> size;
-
-    public UnionFind() {
-        /*
-         * parent = new int[rows*cols]; size = new int[rows*cols]; for(int i =
-         * 0; i < row*cols; i++){ parent[i] = i; size[i] = i; }
-         */
-        // parent = new ArrayList<Integer>();
-        // size = new ArrayList<Integer>();
-
-        parent = new HashMap<Integer, Integer>();
-        size = new HashMap<Integer, Integer>();
-    }
+    private Map<Integer, Integer> parent = new HashMap<Integer, Integer>();
+    private Map<Integer, Integer> size = new HashMap<Integer, Integer>();
 
     public int find(int n) {
         if (parent.get(n) == n) {
@@ -46,7 +39,7 @@ public class UnionFind {
     }
 
     public void addLabel(int i) {
-        parent.put(i, i); // make sure intial key == value
-        size.put(i, 1); // initial size == 1
+        parent.put(i, i);
+        size.put(i, 1);
     }
 }
@@ -0,0 +1,60 @@
+package com.reactlibrary.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.reactlibrary.CancellationToken;
+import com.reactlibrary.SudokuScanner;
+import com.reactlibrary.ocr.DigitClassifierFactory;
+import com.reactlibrary.ocr.ParallelCellRecognizer;
+import com.reactlibrary.solver.CellCandidates;
+
+/**
+ * ParallelCellRecognizer with DigitClassifiers over the digit cells of a
+ * grid. Workers are capped at the number of cores, so the larger counts
+ * only differ from each other on machines with that many
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ParallelRecognizerBenchmark {
+
+    @Param({ "1", "2", "4" })
+    public int workers;
+
+    private ParallelCellRecognizer recognizer;
+    private final CancellationToken token = new CancellationToken();
+    private final CellCandidates candidates = new CellCandidates(
+            SudokuScanner.CELL_CANDIDATES);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        recognizer = new ParallelCellRecognizer(
+                new DigitClassifierFactory(Corpus.prototypes()), workers);
+    }
+
+    @Benchmark
+    public int[][] recognize(PhotoState state) {
+        return recognizer.recognize(state.containNums, new ArrayDeque<Mat>(state.digits),
+                token);
+    }
+
+    @Benchmark
+    public CellCandidates recognizeCandidates(PhotoState state) {
+        recognizer.recognizeCandidates(state.containNums,
+                new ArrayDeque<Mat>(state.digits), candidates, token);
+        return candidates;
+    }
+}
@@ -0,0 +1,101 @@
+package com.reactlibrary.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.reactlibrary.ImageManipUtils;
+import com.reactlibrary.MatPool;
+import com.reactlibrary.PreprocessedFrame;
+import com.reactlibrary.SudokuScanner;
+import com.reactlibrary.imageproc.BlobExtract;
+import com.reactlibrary.imageproc.GridDetector;
+import com.reactlibrary.imageproc.GridExtractor;
+
+/**
+ * One corpus photo and the output of every pipeline stage on it, computed
+ * once per trial so each benchmark measures a single stage on the input the
+ * app would hand it. The grid is found the way the app scans, with a
+ * GridDetector at the default cell size
+ */
+@State(Scope.Thread)
+public class PhotoState {
+
+    public static final int CELL_SIZE = SudokuScanner.DEFAULT_CELL_SIZE;
+
+    @Param({ "flat-768", "tilted-960", "shadow-1200", "soft-1200", "skewed-1536", "small-480" })
+    public String photo;
+
+    // sized like the scan module's pool
+    public final MatPool pool = new MatPool(16);
+    public final Size gridSize = new Size(9 * CELL_SIZE, 9 * CELL_SIZE);
+    public final GridDetector detector = new GridDetector();
+
+    public Mat rgba;
+    public Mat grey;
+    public Mat blurred;
+    public Mat thresholded;
+    // warped, thresholded grid and a copy of its pixels
+    public Mat grid;
+    public byte[] gridPixels;
+    public List<Rect> rects;
+    // cleaned digit crops in row-major cell order and the cells they are in
+    public List<Mat> digits;
+    public boolean[][] containNums;
+
+    private Mat cleaned;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        rgba = Corpus.loadRgba(photo);
+        grey = ImageManipUtils.convertToGrayScale(rgba);
+        blurred = ImageManipUtils.applyGausianBlur(grey);
+        thresholded = ImageManipUtils.adaptiveThreshold(blurred);
+
+        MatPool.Scope scope = pool.openScope();
+        try {
+            Mat warped = new GridExtractor(detector, gridSize)
+                    .extract(PreprocessedFrame.compute(rgba, scope), scope);
+            grid = warped.clone();
+        } finally {
+            scope.close();
+        }
+        gridPixels = new byte[(int) grid.total()];
+        grid.get(0, 0, gridPixels);
+
+        BlobExtract blobs = new BlobExtract();
+        rects = blobs.getBoundingRects(grid);
+        cleaned = grid.clone();
+        Queue<Mat> crops = blobs.findCleanNumbers(cleaned, rects);
+        digits = new ArrayList<Mat>(crops);
+        containNums = new boolean[9][9];
+        for (Rect rect : blobs.sortRects(rects)) {
+            int row = Math.min(8, (rect.y + rect.height / 2) / CELL_SIZE);
+            int col = Math.min(8, (rect.x + rect.width / 2) / CELL_SIZE);
+            containNums[row][col] = true;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void release() {
+        for (Mat digit : digits) {
+            digit.release();
+        }
+        Mat[] mats = { rgba, grey, blurred, thresholded, grid, cleaned };
+        for (Mat mat : mats) {
+            mat.release();
+        }
+        pool.clear();
+    }
+}
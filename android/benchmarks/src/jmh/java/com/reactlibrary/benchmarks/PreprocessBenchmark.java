@@ -0,0 +1,69 @@
+package com.reactlibrary.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.reactlibrary.ImageManipUtils;
+import com.reactlibrary.MatPool;
+import com.reactlibrary.PreprocessedFrame;
+
+/**
+ * The ImageManipUtils steps every scan runs over the full photo, each into a
+ * reused destination like the pooled scan does, and the whole
+ * PreprocessedFrame with its threshold image
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PreprocessBenchmark {
+
+    private final Mat dst = new Mat();
+
+    @TearDown(Level.Trial)
+    public void release() {
+        dst.release();
+    }
+
+    @Benchmark
+    public Mat convertToGrayScale(PhotoState state) {
+        return ImageManipUtils.convertToGrayScale(state.rgba, dst);
+    }
+
+    @Benchmark
+    public Mat applyGausianBlur(PhotoState state) {
+        return ImageManipUtils.applyGausianBlur(state.grey, dst);
+    }
+
+    @Benchmark
+    public Mat adaptiveThreshold(PhotoState state) {
+        return ImageManipUtils.adaptiveThreshold(state.blurred, dst);
+    }
+
+    @Benchmark
+    public Mat applyBitwiseNot(PhotoState state) {
+        return ImageManipUtils.applyBitwiseNot(state.thresholded, dst);
+    }
+
+    /**
+     * grey, blur, threshold and invert as a scan computes them
+     */
+    @Benchmark
+    public int preprocessedFrame(PhotoState state) {
+        MatPool.Scope scope = state.pool.openScope();
+        try {
+            return PreprocessedFrame.compute(state.rgba, scope).getBinary().rows();
+        } finally {
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.reactlibrary.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.reactlibrary.SudokuScanner;
+import com.reactlibrary.ocr.DigitClassifier;
+
+/**
+ * DigitClassifier over every digit crop of a grid on one thread
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class RecognizerBenchmark {
+
+    private DigitClassifier classifier;
+    private final int[] digits = new int[SudokuScanner.CELL_CANDIDATES];
+    private final float[] confidences = new float[SudokuScanner.CELL_CANDIDATES];
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classifier = new DigitClassifier(Corpus.prototypes());
+    }
+
+    @Benchmark
+    public int recognize(PhotoState state) {
+        int sum = 0;
+        for (Mat digit : state.digits) {
+            sum += classifier.recognize(digit);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int recognizeCandidates(PhotoState state) {
+        int sum = 0;
+        for (Mat digit : state.digits) {
+            sum += classifier.recognizeCandidates(digit, digits, confidences);
+        }
+        return sum;
+    }
+}
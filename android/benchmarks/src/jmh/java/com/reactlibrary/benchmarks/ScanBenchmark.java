@@ -0,0 +1,51 @@
+package com.reactlibrary.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.reactlibrary.MatPool;
+import com.reactlibrary.PreprocessedFrame;
+import com.reactlibrary.SudokuScanner;
+import com.reactlibrary.ocr.DigitClassifierFactory;
+import com.reactlibrary.ocr.DigitPrototypes;
+
+/**
+ * The whole scan of a photo as the app runs it with the prototype
+ * recognizer: preprocess, grid detection, components, blobs, parallel OCR
+ * and constraint decoding
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class ScanBenchmark {
+
+    private DigitPrototypes prototypes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        prototypes = Corpus.prototypes();
+    }
+
+    @Benchmark
+    public int[][] scan(PhotoState state) throws IOException {
+        SudokuScanner scanner = new SudokuScanner(null, new DigitClassifierFactory(prototypes));
+        MatPool.Scope scope = state.pool.openScope();
+        try {
+            scanner.setMatScope(scope);
+            scanner.setGridDetector(state.detector);
+            scanner.setPreprocessedFrame(PreprocessedFrame.compute(state.rgba, scope));
+            return scanner.getSudokuGridNums();
+        } finally {
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.reactlibrary.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.reactlibrary.solver.BitmaskSolver;
+import com.reactlibrary.solver.DancingLinks;
+
+/**
+ * The native solvers against the port of the JS backtracking solver. Each
+ * invocation solves a whole set: an easy newspaper puzzle, Arto Inkala's
+ * "Everest", or one of the lists in src/jmh/resources/puzzles (top95 and
+ * 17-clue puzzles). The backtracking port takes up to tens of seconds on
+ * some of those, so it only gets the puzzles of a set it solves within
+ * BACKTRACKING_STEPS steps; setUp prints how many that is
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    // digits placed and taken back, about 200 ms of the port per puzzle
+    public static final int BACKTRACKING_STEPS = 2000000;
+
+    @Param({ "easy", "inkala", "top95", "17-clue" })
+    public String puzzles;
+
+    private final BitmaskSolver bitmask = new BitmaskSolver();
+    private final DancingLinks dancingLinks = new DancingLinks(3);
+    private final BacktrackingSolver backtracking = new BacktrackingSolver(9);
+    private final int[] board = new int[BitmaskSolver.CELLS];
+    private int[][] givens;
+    private int[][] backtrackingGivens;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (puzzles.equals("easy")) {
+            givens = new int[][] { parse(
+                    "530070000600195000098000060800060003400803001700020006060000280000419005000080079") };
+        } else if (puzzles.equals("inkala")) {
+            givens = new int[][] { parse(
+                    "800000000003600000070090200050007000000045700000100030001000068008500010090000400") };
+        } else {
+            givens = read("/puzzles/" + puzzles + ".txt");
+        }
+
+        List<int[]> finished = new ArrayList<int[]>();
+        backtracking.setStepLimit(BACKTRACKING_STEPS);
+        for (int[] puzzle : givens) {
+            System.arraycopy(puzzle, 0, board, 0, board.length);
+            if (backtracking.solve(board)) {
+                finished.add(puzzle);
+            }
+        }
+        backtracking.setStepLimit(Integer.MAX_VALUE);
+        backtrackingGivens = finished.toArray(new int[finished.size()][]);
+        System.out.println(puzzles + ": backtracking runs on "
+                + backtrackingGivens.length + " of " + givens.length + " puzzles");
+    }
+
+    @Benchmark
+    public int bitmask() {
+        int solved = 0;
+        for (int[] puzzle : givens) {
+            System.arraycopy(puzzle, 0, board, 0, board.length);
+            if (bitmask.solve(board)) {
+                solved++;
+            }
+        }
+        return solved;
+    }
+
+    /**
+     * the uniqueness check the batch solver and the generator run
+     */
+    @Benchmark
+    public int bitmaskCountSolutions() {
+        int solutions = 0;
+        for (int[] puzzle : givens) {
+            solutions += bitmask.countSolutions(puzzle, 2);
+        }
+        return solutions;
+    }
+
+    @Benchmark
+    public int dancingLinks() {
+        int solved = 0;
+        for (int[] puzzle : givens) {
+            System.arraycopy(puzzle, 0, board, 0, board.length);
+            if (dancingLinks.solve(board)) {
+                solved++;
+            }
+        }
+        return solved;
+    }
+
+    /**
+     * only the puzzles of the set the port finishes within BACKTRACKING_STEPS
+     */
+    @Benchmark
+    public int backtracking() {
+        int solved = 0;
+        for (int[] puzzle : backtrackingGivens) {
+            System.arraycopy(puzzle, 0, board, 0, board.length);
+            if (backtracking.solve(board)) {
+                solved++;
+            }
+        }
+        return solved;
+    }
+
+    /**
+     * returns the puzzles of a list resource, one per line as 81 characters
+     * with '.' or '0' for empty cells; lines starting with '#' are skipped
+     */
+    private static int[][] read(String resource) throws IOException {
+        InputStream in = SolverBenchmark.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IOException("Missing puzzle list " + resource);
+        }
+        List<int[]> puzzles = new ArrayList<int[]>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in,
+                Charset.forName("US-ASCII")));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.charAt(0) == '#') {
+                    continue;
+                }
+                if (line.length() != BitmaskSolver.CELLS) {
+                    throw new IOException("Bad puzzle line in " + resource + ": " + line);
+                }
+                puzzles.add(parse(line));
+            }
+        } finally {
+            reader.close();
+        }
+        return puzzles.toArray(new int[puzzles.size()][]);
+    }
+
+    private static int[] parse(String digits) {
+        int[] puzzle = new int[BitmaskSolver.CELLS];
+        for (int i = 0; i < puzzle.length; i++) {
+            char c = digits.charAt(i);
+            puzzle[i] = c == '.' ? 0 : c - '0';
+        }
+        return puzzle;
+    }
+}
@@ -0,0 +1,234 @@
+package com.reactlibrary.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfInt;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.solver.PuzzleGenerator;
+
+/**
+ * Renders the photo corpus the benchmarks run on: generated puzzles printed
+ * on a sudoku grid, laid on a background in perspective and given uneven
+ * lighting, defocus blur, sensor noise and JPEG compression. Every photo is
+ * seeded, so the corpus can be rebuilt byte for byte with the same OpenCV
+ * version. Real photos can be added next to them by listing them in the
+ * index
+ *
+ * usage: SyntheticCorpus outputDir
+ */
+public class SyntheticCorpus {
+
+    // pixels per cell of the grid on the printed page
+    private static final int CELL = 96;
+    private static final int JPEG_QUALITY = 85;
+
+    private static class Spec {
+        final String name;
+        final int width;
+        final int height;
+        final long seed;
+        // largest corner displacement, as a fraction of the grid side
+        final double jitter;
+        // darkening across the photo, 0 for even lighting
+        final double shading;
+        final double blur;
+        final double noise;
+        // paper around the grid in page pixels; the page outline is a bigger
+        // quadrilateral than the grid the detector has to tell apart
+        final int margin;
+
+        Spec(String name, int width, int height, long seed, double jitter,
+             double shading, double blur, double noise, int margin) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.seed = seed;
+            this.jitter = jitter;
+            this.shading = shading;
+            this.blur = blur;
+            this.noise = noise;
+            this.margin = margin;
+        }
+    }
+
+    private static final Spec[] SPECS = {
+            new Spec("flat-768", 768, 1024, 1, 0.02, 0.10, 0.8, 4, 40),
+            new Spec("tilted-960", 960, 1280, 2, 0.08, 0.20, 1.0, 6, 60),
+            new Spec("shadow-1200", 1200, 1600, 3, 0.05, 0.45, 1.0, 5, 40),
+            new Spec("soft-1200", 1200, 1600, 4, 0.04, 0.15, 2.2, 5, 24),
+            new Spec("skewed-1536", 1536, 2048, 5, 0.10, 0.25, 1.2, 6, 96),
+            // page trimmed at the grid border
+            new Spec("small-480", 480, 640, 6, 0.04, 0.15, 0.7, 4, 4),
+    };
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: SyntheticCorpus outputDir");
+            System.exit(2);
+        }
+        Corpus.loadOpenCv();
+        File dir = new File(args[0]);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+
+        Writer index = new OutputStreamWriter(new FileOutputStream(new File(dir,
+                Corpus.INDEX)), Charset.forName("US-ASCII"));
+        try {
+            index.write("# name file puzzle (row-major, 0 for empty)\n");
+            for (Spec spec : SPECS) {
+                Random random = new Random(spec.seed);
+                int[] puzzle = new PuzzleGenerator().generate(24 + random.nextInt(8),
+                        PuzzleGenerator.Symmetry.ROTATIONAL, random).getPuzzle();
+                String file = spec.name + ".jpg";
+                Mat photo = render(spec, puzzle, random);
+                MatOfInt params = new MatOfInt(Imgcodecs.IMWRITE_JPEG_QUALITY, JPEG_QUALITY);
+                if (!Imgcodecs.imwrite(new File(dir, file).getPath(), photo, params)) {
+                    throw new IOException("Cannot write " + file);
+                }
+                photo.release();
+
+                StringBuilder line = new StringBuilder(spec.name).append(' ')
+                        .append(file).append(' ');
+                for (int digit : puzzle) {
+                    line.append(digit);
+                }
+                index.write(line.append('\n').toString());
+                System.out.println("wrote " + file);
+            }
+        } finally {
+            index.close();
+        }
+    }
+
+    private static Mat render(Spec spec, int[] puzzle, Random random) {
+        Core.setRNGSeed((int) spec.seed);
+        Mat page = printPage(puzzle, spec.margin);
+        int side = page.cols();
+
+        // background: a dark surface with some texture
+        Mat photo = new Mat(spec.height, spec.width, CvType.CV_8UC3,
+                new Scalar(70, 95, 120));
+        Mat texture = new Mat(photo.size(), CvType.CV_8UC3);
+        Core.randn(texture, 10, 10);
+        Core.add(photo, texture, photo);
+        texture.release();
+        Imgproc.GaussianBlur(photo, photo, new Size(0, 0), 3);
+
+        // page corners land around a centred square of 85% of the width
+        double target = spec.width * 0.85;
+        double left = (spec.width - target) / 2;
+        double top = (spec.height - target) / 2;
+        List<Point> dst = new ArrayList<Point>(4);
+        double[][] corners = { { 0, 0 }, { 1, 0 }, { 1, 1 }, { 0, 1 } };
+        for (double[] corner : corners) {
+            dst.add(new Point(
+                    left + corner[0] * target + (random.nextDouble() * 2 - 1) * spec.jitter * target,
+                    top + corner[1] * target + (random.nextDouble() * 2 - 1) * spec.jitter * target));
+        }
+        MatOfPoint2f srcQuad = new MatOfPoint2f(new Point(0, 0), new Point(side, 0),
+                new Point(side, side), new Point(0, side));
+        MatOfPoint2f dstQuad = new MatOfPoint2f();
+        dstQuad.fromList(dst);
+        Mat transform = Imgproc.getPerspectiveTransform(srcQuad, dstQuad);
+        Imgproc.warpPerspective(page, photo, transform, photo.size(),
+                Imgproc.INTER_LINEAR, Core.BORDER_TRANSPARENT, new Scalar(0));
+        transform.release();
+        srcQuad.release();
+        dstQuad.release();
+        page.release();
+
+        shade(photo, spec.shading, random.nextDouble() * 2 * Math.PI);
+        if (spec.blur > 0) {
+            Imgproc.GaussianBlur(photo, photo, new Size(0, 0), spec.blur);
+        }
+        Mat noise = new Mat(photo.size(), CvType.CV_16SC3);
+        Core.randn(noise, 0, spec.noise);
+        Mat wide = new Mat();
+        photo.convertTo(wide, CvType.CV_16SC3);
+        Core.add(wide, noise, wide);
+        wide.convertTo(photo, CvType.CV_8UC3);
+        wide.release();
+        noise.release();
+        return photo;
+    }
+
+    /**
+     * returns the printed page: a white square with the grid and the givens
+     */
+    private static Mat printPage(int[] puzzle, int margin) {
+        int side = 9 * CELL + 2 * margin;
+        Mat page = new Mat(side, side, CvType.CV_8UC3, new Scalar(236, 240, 238));
+        Scalar ink = new Scalar(35, 35, 35);
+        for (int i = 0; i <= 9; i++) {
+            int thickness = i % 3 == 0 ? 6 : 2;
+            int at = margin + i * CELL;
+            Imgproc.line(page, new Point(margin, at), new Point(side - margin, at), ink,
+                    thickness);
+            Imgproc.line(page, new Point(at, margin), new Point(at, side - margin), ink,
+                    thickness);
+        }
+        int[] baseline = new int[1];
+        for (int cell = 0; cell < puzzle.length; cell++) {
+            if (puzzle[cell] == 0) {
+                continue;
+            }
+            String text = String.valueOf(puzzle[cell]);
+            Size size = Imgproc.getTextSize(text, Imgproc.FONT_HERSHEY_DUPLEX, 2.2, 5, baseline);
+            double x = margin + (cell % 9) * CELL + (CELL - size.width) / 2;
+            double y = margin + (cell / 9) * CELL + (CELL + size.height) / 2;
+            Imgproc.putText(page, text, new Point(x, y), Imgproc.FONT_HERSHEY_DUPLEX, 2.2,
+                    new Scalar(25, 25, 25), 5, Imgproc.LINE_AA, false);
+        }
+        return page;
+    }
+
+    /**
+     * darkens photo linearly along angle, by up to strength at the far side
+     */
+    private static void shade(Mat photo, double strength, double angle) {
+        if (strength <= 0) {
+            return;
+        }
+        int width = photo.cols();
+        int height = photo.rows();
+        double dx = Math.cos(angle);
+        double dy = Math.sin(angle);
+        double min = Math.min(0, dx * width) + Math.min(0, dy * height);
+        double range = Math.abs(dx * width) + Math.abs(dy * height);
+        float[] row = new float[width * 3];
+        Mat gain = new Mat(height, width, CvType.CV_32FC3);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                float g = (float) (1 - strength * (dx * x + dy * y - min) / range);
+                row[3 * x] = g;
+                row[3 * x + 1] = g;
+                row[3 * x + 2] = g;
+            }
+            gain.put(y, 0, row);
+        }
+        Mat wide = new Mat();
+        photo.convertTo(wide, CvType.CV_32FC3);
+        Core.multiply(wide, gain, wide);
+        wide.convertTo(photo, CvType.CV_8UC3);
+        wide.release();
+        gain.release();
+    }
+}
@@ -0,0 +1,88 @@
+package com.reactlibrary.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.reactlibrary.imageproc.UnionFind;
+
+/**
+ * UnionFind against the HashMap version it replaced, on the pattern the
+ * labelling produces: labels are added in order, most are merged with a
+ * recently added label (touching blobs in neighbouring rows), then every
+ * label is looked up once as in the second pass
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class UnionFindBenchmark {
+
+    // labels back a merged label can reach
+    private static final int WINDOW = 64;
+
+    @Param({ "256", "4096", "65536" })
+    public int labels;
+
+    // unions[2k] and unions[2k + 1] are merged after label unions[2k] is added
+    private int[] unions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(labels);
+        int[] pairs = new int[2 * labels];
+        int n = 0;
+        for (int label = 2; label <= labels; label++) {
+            if (random.nextInt(3) != 0) {
+                pairs[n++] = label;
+                pairs[n++] = Math.max(1, label - 1 - random.nextInt(WINDOW));
+            }
+        }
+        unions = new int[n];
+        System.arraycopy(pairs, 0, unions, 0, n);
+    }
+
+    @Benchmark
+    public int arrays() {
+        UnionFind unionFind = new UnionFind();
+        int next = 0;
+        for (int label = 1; label <= labels; label++) {
+            unionFind.addLabel(label);
+            while (next < unions.length && unions[next] == label) {
+                unionFind.union(unions[next], unions[next + 1]);
+                next += 2;
+            }
+        }
+        int sum = 0;
+        for (int label = 1; label <= labels; label++) {
+            sum += unionFind.find(label);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int hashMap() {
+        HashMapUnionFind unionFind = new HashMapUnionFind();
+        int next = 0;
+        for (int label = 1; label <= labels; label++) {
+            unionFind.addLabel(label);
+            while (next < unions.length && unions[next] == label) {
+                unionFind.union(unions[next], unions[next + 1]);
+                next += 2;
+            }
+        }
+        int sum = 0;
+        for (int label = 1; label <= labels; label++) {
+            sum += unionFind.find(label);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,423 @@
+package com.reactlibrary.cli;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+
+import com.google.gson.Gson;
+import com.reactlibrary.FileImageSource;
+import com.reactlibrary.MatPool;
+import com.reactlibrary.PreprocessedFrame;
+import com.reactlibrary.SudokuScanner;
+import com.reactlibrary.imageproc.GridDetector;
+import com.reactlibrary.ocr.DigitClassifierFactory;
+import com.reactlibrary.ocr.DigitPrototypes;
+import com.reactlibrary.stats.Histogram;
+import com.reactlibrary.stats.PipelineStats;
+import com.reactlibrary.stats.Stage;
+import com.reactlibrary.stats.StageTimer;
+
+/**
+ * Scans every image under a directory tree with the app's recognition
+ * pipeline (grid detector, prototype digit recognizer, constraint decoder)
+ * and writes one JSON line per image: its path relative to the root, the
+ * status, the 9x9 grid when one was read, the error message when the scan
+ * failed and the time of each stage in milliseconds. The tree is walked
+ * lazily into a small bounded queue that the workers drain, and each record
+ * is written as soon as its image is done, so memory stays flat however
+ * large the archive is; records come out in completion order. Every worker
+ * keeps its own MatPool, GridDetector and scanner settings and reads digits
+ * on its own thread
+ */
+public class BatchScanner {
+
+    // images waiting per worker; enough to hide the directory walk
+    private static final int QUEUE_PER_WORKER = 4;
+    // Mats a worker keeps between images
+    private static final int POOL_SIZE = 16;
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final Set<String> EXTENSIONS = new HashSet<String>(Arrays.asList(
+            "jpg", "jpeg", "png", "bmp", "webp", "tif", "tiff"));
+    private static final File END = new File("");
+    // how often a blocked hand-off checks that some worker is still taking
+    private static final long HANDOFF_MILLIS = 200;
+
+    public enum Status {
+        // the grid was found and its digits read
+        SCANNED,
+        // no grid, or its digit tiles and crops did not agree
+        NO_GRID,
+        // the image could not be decoded or the pipeline threw
+        FAILED;
+
+        public String key() {
+            return name().toLowerCase(Locale.US);
+        }
+    }
+
+    private final DigitClassifierFactory recognizers;
+    private final int workers;
+    private final Gson gson = new Gson();
+
+    /**
+     * @param prototypes
+     *            digit prototypes the recognizers share
+     * @param workers
+     *            images scanned at once
+     */
+    public BatchScanner(DigitPrototypes prototypes, int workers) {
+        this.recognizers = new DigitClassifierFactory(prototypes);
+        this.workers = workers;
+    }
+
+    /**
+     * scans every image file under root and writes a record per image to
+     * out
+     */
+    public Report run(final File root, Writer out) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        BlockingQueue<File> queue = new ArrayBlockingQueue<File>(workers * QUEUE_PER_WORKER);
+        Report report = new Report();
+        Worker[] threads = new Worker[workers];
+        for (int i = 0; i < workers; i++) {
+            threads[i] = new Worker(root, queue, out, report);
+            threads[i].setName("sudoku-scan-" + i);
+            threads[i].start();
+        }
+        try {
+            walk(root, queue, threads);
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                if (!handOff(queue, END, threads)) {
+                    break;
+                }
+            }
+            for (Worker thread : threads) {
+                thread.join();
+            }
+        }
+        out.flush();
+        report.elapsedNanos = System.nanoTime() - start;
+        if (report.failure != null) {
+            throw report.failure;
+        }
+        return report;
+    }
+
+    private static void walk(File root, final BlockingQueue<File> queue,
+                             final Worker[] threads) throws IOException {
+        Files.walkFileTree(root.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+                    throws IOException {
+                if (attrs.isRegularFile() && isImage(file.getFileName().toString())) {
+                    try {
+                        if (!handOff(queue, file.toFile(), threads)) {
+                            throw new IOException("Every scan worker has stopped");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return FileVisitResult.TERMINATE;
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                System.err.println("skipping " + file + ": " + e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * puts file on the queue, waiting while it is full as long as a worker is
+     * alive to drain it
+     *
+     * @return false if every worker has died, so nothing takes from queue
+     */
+    private static boolean handOff(BlockingQueue<File> queue, File file, Worker[] threads)
+            throws InterruptedException {
+        while (!queue.offer(file, HANDOFF_MILLIS, TimeUnit.MILLISECONDS)) {
+            boolean alive = false;
+            for (Worker thread : threads) {
+                alive |= thread.isAlive();
+            }
+            if (!alive) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isImage(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot > 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.US));
+    }
+
+    /**
+     * one line of output
+     */
+    private static class Record {
+        String path;
+        String status;
+        int[][] grid;
+        String error;
+        Map<String, Double> timings;
+    }
+
+    private class Worker extends Thread {
+        private final Path root;
+        private final BlockingQueue<File> queue;
+        private final Writer out;
+        private final Report report;
+        private final MatPool pool = new MatPool(POOL_SIZE);
+        private final GridDetector detector = new GridDetector();
+
+        Worker(File root, BlockingQueue<File> queue, Writer out, Report report) {
+            this.root = root.toPath();
+            this.queue = queue;
+            this.out = out;
+            this.report = report;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                File file;
+                while ((file = queue.take()) != END) {
+                    if (report.failure == null) {
+                        write(scan(file));
+                    }
+                }
+            } catch (InterruptedException e) {
+                // run() is giving up
+            } finally {
+                pool.clear();
+            }
+        }
+
+        private Record scan(File file) {
+            Record record = new Record();
+            record.path = root.relativize(file.toPath()).toString()
+                    .replace(File.separatorChar, '/');
+            StageTimer timer = report.stats.newTimer();
+            Status status;
+            MatPool.Scope scope = pool.openScope();
+            try {
+                timer.start(Stage.TOTAL);
+                timer.start(Stage.DECODE);
+                Mat rgba = new FileImageSource(file).toRgba(scope);
+                timer.stop(Stage.DECODE);
+                timer.start(Stage.PREPROCESS);
+                PreprocessedFrame frame = PreprocessedFrame.compute(rgba, scope);
+                timer.stop(Stage.PREPROCESS);
+
+                SudokuScanner scanner = new SudokuScanner(null, recognizers);
+                scanner.setMatScope(scope);
+                scanner.setPreprocessedFrame(frame);
+                scanner.setGridDetector(detector);
+                scanner.setRecognizerWorkers(1);
+                scanner.setStageTimer(timer);
+                record.grid = scanner.getSudokuGridNums();
+                timer.stop(Stage.TOTAL);
+                status = record.grid == null ? Status.NO_GRID : Status.SCANNED;
+            } catch (Throwable e) {
+                // decode errors, OpenCV failures and out of memory on odd
+                // images; the worker goes on with the next one
+                timer.stop(Stage.TOTAL);
+                record.error = e.getMessage() == null ? e.toString() : e.getMessage();
+                status = Status.FAILED;
+            } finally {
+                scope.close();
+            }
+            record.status = status.key();
+            record.timings = new LinkedHashMap<String, Double>();
+            for (Stage stage : Stage.values()) {
+                if (timer.ran(stage)) {
+                    record.timings.put(stage.key(), Math.round(timer.getNanos(stage) / 1e3) / 1e3);
+                }
+            }
+            timer.finish();
+            report.statuses.incrementAndGet(status.ordinal());
+            return record;
+        }
+
+        private void write(Record record) {
+            String line = gson.toJson(record);
+            try {
+                synchronized (out) {
+                    out.write(line);
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                // the remaining images are skipped and run() rethrows
+                report.failure = e;
+            }
+        }
+    }
+
+    /**
+     * counts and stage timings of one run()
+     */
+    public static class Report {
+        private final AtomicLongArray statuses = new AtomicLongArray(Status.values().length);
+        private final PipelineStats stats = new PipelineStats();
+        private long elapsedNanos;
+        private volatile IOException failure;
+
+        Report() {
+            stats.setEnabled(true);
+        }
+
+        public long getCount(Status status) {
+            return statuses.get(status.ordinal());
+        }
+
+        public long getTotal() {
+            long total = 0;
+            for (int i = 0; i < statuses.length(); i++) {
+                total += statuses.get(i);
+            }
+            return total;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getImagesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getTotal() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * returns time per image of stage in nanoseconds
+         */
+        public Histogram getNanos(Stage stage) {
+            return stats.snapshot().getNanos(stage);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format(Locale.US,
+                    "%d images in %.2f s (%.1f/s): scanned %d, no grid %d, failed %d",
+                    getTotal(), elapsedNanos / 1e9, getImagesPerSecond(),
+                    getCount(Status.SCANNED), getCount(Status.NO_GRID),
+                    getCount(Status.FAILED)));
+            PipelineStats.Snapshot snapshot = stats.snapshot();
+            for (Stage stage : Stage.values()) {
+                Histogram nanos = snapshot.getNanos(stage);
+                if (nanos.getCount() == 0) {
+                    continue;
+                }
+                text.append(String.format(Locale.US,
+                        "%n%-10s ms: mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, max %.1f",
+                        stage.key(), nanos.getMean() / 1e6, nanos.getPercentile(50) / 1e6,
+                        nanos.getPercentile(90) / 1e6, nanos.getPercentile(99) / 1e6,
+                        nanos.getMax() / 1e6));
+            }
+            return text.toString();
+        }
+    }
+
+    private static final String USAGE = "usage: BatchScanner [--threads=N] [--prototypes=FILE] "
+            + "<directory> [records|-]\n"
+            + "  --threads=N         images scanned at once, default one per core\n"
+            + "  --prototypes=FILE   digit prototypes, default the ones the app ships";
+
+    /**
+     * command line entry point; the report goes to stderr
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String prototypes = null;
+        String input = null;
+        String output = "-";
+        int files = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                try {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads < 1) {
+                    usage("Invalid thread count: " + arg);
+                }
+            } else if (arg.startsWith("--prototypes=")) {
+                prototypes = arg.substring("--prototypes=".length());
+            } else if (arg.startsWith("--") || files == 2) {
+                usage("Unexpected argument: " + arg);
+            } else if (files++ == 0) {
+                input = arg;
+            } else {
+                output = arg;
+            }
+        }
+        if (input == null) {
+            usage(null);
+        }
+        File root = new File(input);
+        if (!root.isDirectory()) {
+            usage("Not a directory: " + input);
+        }
+
+        nu.pattern.OpenCV.loadLocally();
+        if (threads > 1) {
+            // images already keep the cores busy; OpenCV's own threads would
+            // only compete with them
+            Core.setNumThreads(1);
+        }
+        InputStream in = prototypes == null
+                ? BatchScanner.class.getResourceAsStream("/" + DigitPrototypes.ASSET_NAME)
+                : new FileInputStream(prototypes);
+        if (in == null) {
+            usage("No bundled " + DigitPrototypes.ASSET_NAME + ", pass --prototypes");
+        }
+        BatchScanner scanner = new BatchScanner(DigitPrototypes.load(in), threads);
+
+        OutputStream out = output.equals("-") ? System.out : new FileOutputStream(output);
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, UTF8), 1 << 16);
+            Report report = scanner.run(root, writer);
+            System.err.println(report);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void usage(String error) {
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
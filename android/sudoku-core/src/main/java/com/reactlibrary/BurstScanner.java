@@ -0,0 +1,126 @@
+package com.reactlibrary;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Size;
+
+import com.reactlibrary.imageproc.CornerTracker;
+import com.reactlibrary.imageproc.GridDetector;
+import com.reactlibrary.imageproc.SharpnessMeter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Scans a burst: photos of the same puzzle taken one right after the other,
+ * of which the sharpest is read. The grid is detected in the first frame and
+ * followed through the others with a CornerTracker, so a frame only pays for
+ * a full detection when the tracker loses the grid, and the warp transform is
+ * reused while the grid holds still. Each frame's grid is scored with a
+ * SharpnessMeter; a frame is only warped when it is sharper than the best so
+ * far, and only the sharpest warped grid has its digits read
+ */
+public class BurstScanner {
+
+    private final SudokuScanner scanner;
+    private final CornerTracker tracker;
+    private final SharpnessMeter sharpnessMeter;
+    private CancellationToken mToken = new CancellationToken();
+    private int sharpestFrame = -1;
+    private double sharpestScore;
+    private int trackedFrames;
+
+    /**
+     * @param scanner
+     *            reads the digits of the sharpest grid, with its recognizers,
+     *            decoder, timer and grid size
+     * @param detector
+     *            finds the grid when there is none to track
+     */
+    public BurstScanner(SudokuScanner scanner, GridDetector detector,
+                        SharpnessMeter sharpnessMeter) {
+        this.scanner = scanner;
+        this.tracker = new CornerTracker(detector);
+        this.sharpnessMeter = sharpnessMeter;
+    }
+
+    /**
+     * token checked between frames and by the scanner; cancelling it makes
+     * scan throw ScanCancelledException
+     */
+    public void setCancellationToken(CancellationToken token) {
+        mToken = token;
+        scanner.setCancellationToken(token);
+    }
+
+    /**
+     * scans frames in the order they were taken. Only one frame is decoded
+     * at a time; its Mats go back to pool before the next one is read
+     *
+     * @return grid of the sharpest frame with a grid, or null if no frame has
+     *         one or its digits could not be read
+     */
+    public int[][] scan(List<? extends ImageSource> frames, MatPool pool) throws IOException {
+        tracker.reset();
+        sharpestFrame = -1;
+        sharpestScore = 0;
+        trackedFrames = 0;
+        Size size = scanner.getGridSize();
+        MatPool.Scope scope = pool.openScope();
+        try {
+            Mat sharpest = scope.obtain(size, CvType.CV_8UC1);
+            for (int i = 0; i < frames.size(); i++) {
+                mToken.throwIfCancelled();
+                MatPool.Scope frameScope = pool.openScope();
+                try {
+                    Mat grey = PreprocessedFrame.compute(frames.get(i), frameScope).getGrey();
+                    List<Point> corners = tracker.track(grey, frameScope);
+                    if (corners == null) {
+                        continue;
+                    }
+                    if (tracker.wasTracked()) {
+                        trackedFrames++;
+                    }
+                    double score = sharpnessMeter.score(grey, corners, frameScope);
+                    if (sharpestFrame < 0 || score > sharpestScore) {
+                        tracker.warpGrid(grey, size, frameScope).copyTo(sharpest);
+                        sharpestFrame = i;
+                        sharpestScore = score;
+                    }
+                } finally {
+                    frameScope.close();
+                }
+            }
+            if (sharpestFrame < 0) {
+                return null;
+            }
+            mToken.throwIfCancelled();
+            return scanner.readGrid(sharpest);
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * returns index of the frame the last scan read, -1 if none had a grid
+     */
+    public int getSharpestFrame() {
+        return sharpestFrame;
+    }
+
+    /**
+     * returns Laplacian variance of the grid of the frame the last scan read
+     */
+    public double getSharpestScore() {
+        return sharpestScore;
+    }
+
+    /**
+     * returns number of frames of the last scan whose grid was followed from
+     * the frame before instead of detected again
+     */
+    public int getTrackedFrames() {
+        return trackedFrames;
+    }
+}
@@ -0,0 +1,28 @@
+package com.reactlibrary;
+
+/**
+ * Cooperative cancellation flag for one scan. The pipeline calls
+ * throwIfCancelled() between stages; cancel() may be called from any thread
+ */
+public class CancellationToken {
+
+    private volatile boolean cancelled = false;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws ScanCancelledException
+     *             if cancel() was called
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new ScanCancelledException();
+        }
+    }
+}
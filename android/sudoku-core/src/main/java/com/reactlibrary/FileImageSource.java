@@ -0,0 +1,36 @@
+package com.reactlibrary;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * An image file decoded with OpenCV, in any format imread reads
+ */
+public class FileImageSource implements ImageSource {
+
+    private final File file;
+
+    public FileImageSource(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public Mat toRgba(MatPool.Scope scope) throws IOException {
+        Mat bgr = scope.track(Imgcodecs.imread(file.getPath(), Imgcodecs.IMREAD_COLOR));
+        if (bgr.empty()) {
+            throw new IOException("Cannot decode image " + file);
+        }
+        Mat rgba = scope.obtain(bgr.size(), CvType.CV_8UC4);
+        Imgproc.cvtColor(bgr, rgba, Imgproc.COLOR_BGR2RGBA);
+        return rgba;
+    }
+}
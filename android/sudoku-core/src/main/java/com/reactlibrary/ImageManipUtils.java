@@ -1,20 +1,12 @@
 package com.reactlibrary;
 
-import android.graphics.Bitmap;
-import android.util.Base64;
-import android.util.Log;
-
-import org.opencv.android.Utils;
 import org.opencv.core.Core;
-import org.opencv.core.CvException;
-import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.Point;
 import org.opencv.core.Size;
 import org.opencv.imgproc.Imgproc;
 import org.opencv.utils.Converters;
 
-import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -39,9 +31,51 @@ public class ImageManipUtils {
      */
     public static Mat fixPerspective(Point upLeft, Point upRight,
                                      Point downLeft, Point downRight, Mat source) {
+        return fixPerspective(upLeft, upRight, downLeft, downRight, source,
+                new Mat(source.size(), source.type()));
+    }
+
+    /**
+     * same as fixPerspective(Point, Point, Point, Point, Mat) but warps into
+     * dst, which is (re)allocated only if it is not already the source's size
+     * and type
+     *
+     * @return dst
+     */
+    public static Mat fixPerspective(Point upLeft, Point upRight,
+                                     Point downLeft, Point downRight, Mat source,
+                                     Mat dst) {
+        return fixPerspective(upLeft, upRight, downLeft, downRight, source, dst,
+                source.size());
+    }
+
+    /**
+     * same as fixPerspective(Point, Point, Point, Point, Mat, Mat) but the
+     * corners are mapped to a dst of the given size
+     *
+     * @return dst
+     */
+    public static Mat fixPerspective(Point upLeft, Point upRight,
+                                     Point downLeft, Point downRight, Mat source,
+                                     Mat dst, Size size) {
+        // apply perspective transform using 3x3 matrix
+        Mat perspectiveTrans = getPerspectiveTransform(upLeft, upRight,
+                downLeft, downRight, size);
+        dst.create(size, source.type());
+        Imgproc.warpPerspective(source, dst, perspectiveTrans, dst.size());
+        perspectiveTrans.release();
+        return dst;
+    }
+
+    /**
+     * returns the 3x3 transform fixPerspective applies to map the four corners
+     * onto the corners of an image of the given size; the caller releases it
+     */
+    public static Mat getPerspectiveTransform(Point upLeft, Point upRight,
+                                              Point downLeft, Point downRight,
+                                              Size size) {
         List<Point> src = new ArrayList<Point>();
         List<Point> dest = new ArrayList<Point>();
-        Mat result = new Mat(source.size(), source.type());
 
         // add the four corners to List
         src.add(upLeft);
@@ -50,9 +84,9 @@ public class ImageManipUtils {
         src.add(downRight);
 
         Point topLeft = new Point(0, 0);
-        Point topRight = new Point(source.cols(), 0);
-        Point bottomLeft = new Point(0, source.rows());
-        Point bottomRight = new Point(source.cols(), source.rows());
+        Point topRight = new Point(size.width, 0);
+        Point bottomLeft = new Point(0, size.height);
+        Point bottomRight = new Point(size.width, size.height);
 
         // add destination corners to List (adjusted for rotation)
         dest.add(topLeft);
@@ -63,13 +97,10 @@ public class ImageManipUtils {
         // convert List to Mat
         Mat srcM = Converters.vector_Point2f_to_Mat(src);
         Mat destM = Converters.vector_Point2f_to_Mat(dest);
-
-        // apply perspective transform using 3x3 matrix
-        Mat perspectiveTrans = new Mat(3, 3, CvType.CV_32FC1);
-        perspectiveTrans = Imgproc.getPerspectiveTransform(srcM, destM);
-        Imgproc.warpPerspective(source, result, perspectiveTrans, result.size());
-
-        return result;
+        Mat perspectiveTrans = Imgproc.getPerspectiveTransform(srcM, destM);
+        srcM.release();
+        destM.release();
+        return perspectiveTrans;
     }
 
     /**
@@ -116,10 +147,11 @@ public class ImageManipUtils {
         // find the four general edges of the sudoku grid; 5 pixel buffer region
         // in case any part of the grid gets cut off
         // Bitmap bmp = matToBitmap(mat);
-        int left = findBorders(1, mat) - 5;
-        int right = findBorders(2, mat) + 5;
-        int top = findBorders(3, mat) - 5;
-        int bot = findBorders(4, mat) + 5;
+        PixelView pixels = PixelView.of(mat);
+        int left = findBorders(1, pixels) - 5;
+        int right = findBorders(2, pixels) + 5;
+        int top = findBorders(3, pixels) - 5;
+        int bot = findBorders(4, pixels) + 5;
 
         bounds[0] = left;
         bounds[1] = right;
@@ -135,36 +167,36 @@ public class ImageManipUtils {
      *
      * @param side
      *            1=left, 2=right, 3=top, 4=bottom
-     * @param bmp
-     *            source bitmap
+     * @param mat
+     *            source pixels
      * @return the x or y coordinate of the border
      */
-    private static int findBorders(int side, Mat mat) {
+    private static int findBorders(int side, PixelView mat) {
         switch (side) {
             // left
             case 1:
-                for (int i = mat.cols() / 3; i > 0; i--) {
+                for (int i = mat.getWidth() / 3; i > 0; i--) {
                     if (isBorderHeight(i, mat))
                         return i;
                 }
                 break;
             // right
             case 2:
-                for (int i = 2 * mat.cols() / 3; i < mat.cols(); i++) {
+                for (int i = 2 * mat.getWidth() / 3; i < mat.getWidth(); i++) {
                     if (isBorderHeight(i, mat))
                         return i;
                 }
                 break;
             // top
             case 3:
-                for (int i = mat.rows() / 3; i > 0; i--) {
+                for (int i = mat.getHeight() / 3; i > 0; i--) {
                     if (isBorderWidth(i, mat))
                         return i;
                 }
                 break;
             // bottom
             case 4:
-                for (int i = 2 * mat.rows() / 3; i < mat.rows(); i++) {
+                for (int i = 2 * mat.getHeight() / 3; i < mat.getHeight(); i++) {
                     if (isBorderWidth(i, mat))
                         return i;
                 }
@@ -180,14 +212,14 @@ public class ImageManipUtils {
      *
      * @param height
      *            y coordinate
-     * @param bmp
-     *            source bitmap
+     * @param mat
+     *            source pixels
      * @return true if line is outside of sudoku grid, false otherwise
      */
-    private static boolean isBorderWidth(int height, Mat mat) {
-        for (int i = 2 * mat.cols() / 5; i < 3 * mat.cols() / 5; i++) {
+    private static boolean isBorderWidth(int height, PixelView mat) {
+        for (int i = 2 * mat.getWidth() / 5; i < 3 * mat.getWidth() / 5; i++) {
             // if pixel is black
-            if ((int) mat.get(height, i)[0] == 255) {
+            if (mat.get(i, height) == 255) {
                 return false;
             }
         }
@@ -199,14 +231,14 @@ public class ImageManipUtils {
      *
      * @param width
      *            x coordinate
-     * @param bmp
-     *            bitmap containing image
+     * @param mat
+     *            pixels containing image
      * @return true if line is outside of sudoku grid, false otherwise
      */
-    private static boolean isBorderHeight(int width, Mat mat) {
-        for (int i = 2 * mat.rows() / 5; i < 3 * mat.rows() / 5; i++) {
+    private static boolean isBorderHeight(int width, PixelView mat) {
+        for (int i = 2 * mat.getHeight() / 5; i < 3 * mat.getHeight() / 5; i++) {
             // if pixel is black
-            if ((int) mat.get(i, width)[0] == 255) {
+            if (mat.get(width, i) == 255) {
                 return false;
             }
         }
@@ -225,67 +257,66 @@ public class ImageManipUtils {
         return false;
     }
 
-    public static Bitmap convertMatToBitmap(Mat tmp) {
-        Bitmap bmp = null;
-        try {
-            bmp = Bitmap.createBitmap(tmp.cols(), tmp.rows(), Bitmap.Config.ARGB_8888);
-            Utils.matToBitmap(tmp, bmp);
+    /*
+     * Each helper below has an overload writing into a caller supplied dst
+     * (typically from a MatPool.Scope); OpenCV only reallocates dst when its
+     * size or type does not match the result. The single argument versions
+     * allocate a new Mat the caller has to release.
+     */
 
-        } catch (CvException e){
-            Log.d("Exception",e.getMessage());
-        }
-        return bmp;
+    public static Mat convertToGrayScale(Mat src) {
+        return convertToGrayScale(src, new Mat());
     }
 
-    public static String convertToBase64(Bitmap bitmap) {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.PNG, 100, byteArrayOutputStream);
-        byte[] byteArray = byteArrayOutputStream .toByteArray();
-
-        String encoded = Base64.encodeToString(byteArray, Base64.DEFAULT);
-        return encoded;
+    public static Mat convertToGrayScale(Mat src, Mat dst) {
+        Imgproc.cvtColor(src, dst, Imgproc.COLOR_BGR2GRAY);
+        return dst;
     }
 
-    public static Mat convertToGrayScale(Mat src) {
-        Mat resultImage = new Mat();
-        Imgproc.cvtColor(src, resultImage, Imgproc.COLOR_BGR2GRAY);
-        return resultImage;
+    public static Mat applyGausianBlur(Mat src) {
+        return applyGausianBlur(src, new Mat());
     }
 
-    public static Mat applyGausianBlur(Mat src) {
-        Mat resultImage = new Mat();
-        Imgproc.blur(src, resultImage, new Size(3,3));
-        return resultImage;
+    public static Mat applyGausianBlur(Mat src, Mat dst) {
+        Imgproc.blur(src, dst, new Size(3,3));
+        return dst;
     }
 
     public static Mat adaptiveThreshold(Mat src) {
-        Mat resultImage = new Mat();
-        Imgproc.adaptiveThreshold(src, resultImage, 255, Imgproc.ADAPTIVE_THRESH_GAUSSIAN_C, Imgproc.THRESH_BINARY, 11, 2);
-        return resultImage;
+        return adaptiveThreshold(src, new Mat());
+    }
+
+    public static Mat adaptiveThreshold(Mat src, Mat dst) {
+        Imgproc.adaptiveThreshold(src, dst, 255, Imgproc.ADAPTIVE_THRESH_GAUSSIAN_C, Imgproc.THRESH_BINARY, 11, 2);
+        return dst;
     }
 
     public static Mat applyBitwiseNot(Mat src) {
-        Mat resultImage = new Mat();
-        Core.bitwise_not(src, resultImage);
-        return resultImage;
+        return applyBitwiseNot(src, new Mat());
+    }
+
+    public static Mat applyBitwiseNot(Mat src, Mat dst) {
+        Core.bitwise_not(src, dst);
+        return dst;
     }
 
     public static Mat dilateMat(Mat src, int size) {
-        Mat resultImage = new Mat();
+        return dilateMat(src, size, new Mat());
+    }
+
+    public static Mat dilateMat(Mat src, int size, Mat dst) {
         Mat kernel = Imgproc.getStructuringElement(Imgproc.MORPH_CROSS, new Size(size, size));
-        Imgproc.dilate(src, resultImage, kernel);
-        return resultImage;
+        Imgproc.dilate(src, dst, kernel);
+        kernel.release();
+        return dst;
     }
 
     public static Mat binaryThreshold(Mat mat) {
-        Mat resultImage = new Mat();
-        Imgproc.threshold(mat, resultImage, 128, 255, Imgproc.THRESH_BINARY);
-        return resultImage;
+        return binaryThreshold(mat, new Mat());
     }
 
-    public static Mat bitmapToMat(Bitmap bmp) {
-        Mat mat = new Mat(bmp.getHeight(), bmp.getWidth(), CvType.CV_8UC1);
-        Utils.bitmapToMat(bmp, mat);
-        return mat;
+    public static Mat binaryThreshold(Mat mat, Mat dst) {
+        Imgproc.threshold(mat, dst, 128, 255, Imgproc.THRESH_BINARY);
+        return dst;
     }
 }
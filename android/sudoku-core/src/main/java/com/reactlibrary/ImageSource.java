@@ -0,0 +1,20 @@
+package com.reactlibrary;
+
+import org.opencv.core.Mat;
+
+import java.io.IOException;
+
+/**
+ * A photo to scan, whatever it was read from: an Android Bitmap in the app,
+ * an image file on the desktop
+ */
+public interface ImageSource {
+
+    /**
+     * returns the pixels as an RGBA Mat taken from scope
+     *
+     * @throws IOException
+     *             if the image cannot be read or decoded
+     */
+    Mat toRgba(MatPool.Scope scope) throws IOException;
+}
@@ -0,0 +1,42 @@
+package com.reactlibrary;
+
+/**
+ * Debug output of the recognition pipeline. The core has no logging
+ * framework of its own: the app plugs in android.util.Log, desktop tools
+ * STDERR, and NONE drops everything
+ */
+public abstract class Logger {
+
+    public static final Logger NONE = new Logger() {
+        @Override
+        public void debug(String tag, String message) {
+        }
+
+        @Override
+        public void error(String tag, String message, Throwable error) {
+        }
+    };
+
+    public static final Logger STDERR = new Logger() {
+        @Override
+        public void debug(String tag, String message) {
+            System.err.println(tag + ": " + message);
+        }
+
+        @Override
+        public void error(String tag, String message, Throwable error) {
+            System.err.println(tag + ": " + message);
+            if (error != null) {
+                error.printStackTrace();
+            }
+        }
+    };
+
+    public abstract void debug(String tag, String message);
+
+    /**
+     * @param error
+     *            cause of the failure, may be null
+     */
+    public abstract void error(String tag, String message, Throwable error);
+}
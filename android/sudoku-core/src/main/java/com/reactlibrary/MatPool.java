@@ -0,0 +1,151 @@
+package com.reactlibrary;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps native Mat buffers between scans. A scan opens a Scope, takes its
+ * scratch Mats from it and closes it when done: pooled Mats go back to the
+ * pool (keyed by size and type) and tracked Mats are released, so native
+ * memory does not wait for finalizers and back-to-back scans of same-sized
+ * photos reuse the same buffers. Idle Mats beyond maxIdle are released
+ */
+public class MatPool {
+
+    private final int maxIdle;
+    private final Map<Long, ArrayDeque<Mat>> idle = new HashMap<Long, ArrayDeque<Mat>>();
+    private int idleCount = 0;
+
+    /**
+     * @param maxIdle
+     *            most Mats kept between scans
+     */
+    public MatPool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public Scope openScope() {
+        return new Scope();
+    }
+
+    /**
+     * releases every idle Mat
+     */
+    public synchronized void clear() {
+        for (ArrayDeque<Mat> mats : idle.values()) {
+            for (Mat mat : mats) {
+                mat.release();
+            }
+        }
+        idle.clear();
+        idleCount = 0;
+    }
+
+    public synchronized int getIdleCount() {
+        return idleCount;
+    }
+
+    private synchronized Mat take(int rows, int cols, int type) {
+        ArrayDeque<Mat> mats = idle.get(key(rows, cols, type));
+        if (mats == null || mats.isEmpty()) {
+            return new Mat(rows, cols, type);
+        }
+        idleCount--;
+        return mats.pop();
+    }
+
+    private synchronized void recycle(Mat mat) {
+        if (mat.empty() || idleCount >= maxIdle) {
+            mat.release();
+            return;
+        }
+        long key = key(mat.rows(), mat.cols(), mat.type());
+        ArrayDeque<Mat> mats = idle.get(key);
+        if (mats == null) {
+            mats = new ArrayDeque<Mat>();
+            idle.put(key, mats);
+        }
+        mats.push(mat);
+        idleCount++;
+    }
+
+    private static long key(int rows, int cols, int type) {
+        return ((long) rows << 40) | ((long) cols << 16) | type;
+    }
+
+    /**
+     * Mats used by one scan; not thread-safe, close() once the scan's
+     * results have been consumed
+     */
+    public class Scope implements Closeable {
+
+        private final List<Mat> pooled = new ArrayList<Mat>();
+        private final List<Mat> tracked = new ArrayList<Mat>();
+        private boolean closed = false;
+
+        /**
+         * returns pooled Mat of exactly this size and type (contents
+         * undefined), returned to the pool on close()
+         */
+        public Mat obtain(int rows, int cols, int type) {
+            Mat mat = take(rows, cols, type);
+            pooled.add(mat);
+            return mat;
+        }
+
+        public Mat obtain(Size size, int type) {
+            return obtain((int) size.height, (int) size.width, type);
+        }
+
+        /**
+         * returns empty Mat for an OpenCV call to allocate; whatever buffer
+         * it ends up with is pooled on close()
+         */
+        public Mat obtain() {
+            Mat mat = new Mat();
+            pooled.add(mat);
+            return mat;
+        }
+
+        /**
+         * registers a Mat allocated elsewhere to be released on close()
+         *
+         * @return mat
+         */
+        public <T extends Mat> T track(T mat) {
+            tracked.add(mat);
+            return mat;
+        }
+
+        /**
+         * gives up ownership of mat so close() leaves it alone
+         */
+        public void detach(Mat mat) {
+            pooled.remove(mat);
+            tracked.remove(mat);
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Mat mat : tracked) {
+                mat.release();
+            }
+            tracked.clear();
+            for (Mat mat : pooled) {
+                recycle(mat);
+            }
+            pooled.clear();
+        }
+    }
+}
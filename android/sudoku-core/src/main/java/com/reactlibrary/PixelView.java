@@ -0,0 +1,128 @@
+package com.reactlibrary;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+
+/**
+ * Row-major 8 bit view of a single channel image. The pixels of a Mat (or a
+ * region of it) are copied across JNI in one call into a byte array that is
+ * kept and reused by later loads, so per-pixel code never goes through
+ * Mat.get(row, col)
+ */
+public class PixelView {
+
+    private byte[] data = new byte[0];
+    private int width;
+    private int height;
+
+    public PixelView() {
+    }
+
+    /**
+     * returns new view holding the first channel of mat
+     */
+    public static PixelView of(Mat mat) {
+        return new PixelView().load(mat);
+    }
+
+    /**
+     * copies first channel of mat into this view, reusing the buffer when it
+     * is big enough
+     *
+     * @param mat
+     *            CV_8U source image or ROI; extra channels are ignored
+     * @return this view
+     */
+    public PixelView load(Mat mat) {
+        width = mat.cols();
+        height = mat.rows();
+        int size = width * height;
+        if (data.length < size) {
+            data = new byte[size];
+        }
+        if (size == 0) {
+            return this;
+        }
+
+        if (mat.type() == CvType.CV_8UC1) {
+            // non-continuous ROIs are copied row by row on the native side
+            mat.get(0, 0, data);
+        } else {
+            Mat channel = new Mat();
+            Core.extractChannel(mat, channel, 0);
+            channel.get(0, 0, data);
+            channel.release();
+        }
+        return this;
+    }
+
+    /**
+     * copies region roi of mat into this view
+     */
+    public PixelView load(Mat mat, Rect roi) {
+        Mat sub = mat.submat(roi);
+        load(sub);
+        sub.release();
+        return this;
+    }
+
+    /**
+     * writes the view back into a CV_8UC1 Mat in one call
+     *
+     * @param dst
+     *            destination, (re)allocated to the view size if needed
+     * @return dst
+     */
+    public Mat copyTo(Mat dst) {
+        dst.create(height, width, CvType.CV_8UC1);
+        dst.put(0, 0, data);
+        return dst;
+    }
+
+    /**
+     * returns unsigned pixel value at x, y
+     */
+    public int get(int x, int y) {
+        return data[y * width + x] & 0xFF;
+    }
+
+    public void set(int x, int y, int value) {
+        data[y * width + x] = (byte) value;
+    }
+
+    /**
+     * returns the highest unsigned pixel value
+     */
+    public int max() {
+        int max = 0;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            int v = data[i] & 0xFF;
+            if (v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * backing row-major buffer; it may be longer than size()
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int size() {
+        return width * height;
+    }
+}
@@ -0,0 +1,70 @@
+package com.reactlibrary;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import java.io.IOException;
+
+/**
+ * The per-frame preprocessing every scan needs: the RGBA pixels of the input,
+ * its grey version and the inverted adaptive threshold (white lines and
+ * digits on black). Computed once per input frame and shared by the grid
+ * extractor and the preview, instead of each running its own gray, blur,
+ * threshold and not chain over the full image; the threshold is only
+ * computed when something asks for it. The Mats belong to the scope the
+ * frame was computed in
+ */
+public class PreprocessedFrame {
+
+    private final Mat rgba;
+    private final Mat grey;
+    private final MatPool.Scope scope;
+    private Mat binary;
+
+    private PreprocessedFrame(Mat rgba, Mat grey, MatPool.Scope scope) {
+        this.rgba = rgba;
+        this.grey = grey;
+        this.scope = scope;
+    }
+
+    /**
+     * preprocesses rgba; rgba is kept as is and returned by getRgba()
+     */
+    public static PreprocessedFrame compute(Mat rgba, MatPool.Scope scope) {
+        Mat grey = ImageManipUtils.convertToGrayScale(rgba,
+                scope.obtain(rgba.size(), CvType.CV_8UC1));
+        return new PreprocessedFrame(rgba, grey, scope);
+    }
+
+    /**
+     * reads image into an RGBA Mat taken from scope and preprocesses it
+     */
+    public static PreprocessedFrame compute(ImageSource image, MatPool.Scope scope)
+            throws IOException {
+        return compute(image.toRgba(scope), scope);
+    }
+
+    public Mat getRgba() {
+        return rgba;
+    }
+
+    public Mat getGrey() {
+        return grey;
+    }
+
+    /**
+     * returns inverted adaptive threshold of the grey image, computed on the
+     * first call; used by the full resolution grid search and as the scan
+     * preview
+     */
+    public Mat getBinary() {
+        if (binary == null) {
+            binary = ImageManipUtils.applyGausianBlur(grey,
+                    scope.obtain(grey.size(), CvType.CV_8UC1));
+            // threshold and invert in place, the blurred image is not needed
+            ImageManipUtils.adaptiveThreshold(binary, binary);
+            ImageManipUtils.applyBitwiseNot(binary, binary);
+        }
+        return binary;
+    }
+}
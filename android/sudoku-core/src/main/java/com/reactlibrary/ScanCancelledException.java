@@ -0,0 +1,13 @@
+package com.reactlibrary;
+
+/**
+ * Thrown by CancellationToken.throwIfCancelled() to unwind a cancelled scan
+ */
+public class ScanCancelledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ScanCancelledException() {
+        super("Scan cancelled");
+    }
+}
@@ -0,0 +1,478 @@
+package com.reactlibrary;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.imageproc.BlobExtract;
+import com.reactlibrary.imageproc.GridDetector;
+import com.reactlibrary.imageproc.GridExtractor;
+import com.reactlibrary.ocr.DigitRecognizerFactory;
+import com.reactlibrary.ocr.ParallelCellRecognizer;
+import com.reactlibrary.solver.BitmaskSolver;
+import com.reactlibrary.solver.CellCandidates;
+import com.reactlibrary.solver.ConstraintDecoder;
+import com.reactlibrary.stats.Stage;
+import com.reactlibrary.stats.StageTimer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * The recognition pipeline: preprocess the photo, find and warp the grid,
+ * cut out the digits and read them into a 9x9 grid. Plain Java over OpenCV,
+ * so the same code runs in the app and on a desktop JVM
+ */
+public class SudokuScanner {
+    // pixels per cell of the warped grid; digit crops stay well above the
+    // recognizers' input size
+    public static final int DEFAULT_CELL_SIZE = 64;
+    // digits kept per cell for the constraint decoder
+    public static final int CELL_CANDIDATES = 3;
+
+    private ImageSource mImage;
+    private Mat clean;
+    private BlobExtract mBlobExtract;
+    private DigitRecognizerFactory mRecognizers;
+    private int mRecognizerWorkers = Runtime.getRuntime().availableProcessors();
+    private CancellationToken mToken = new CancellationToken();
+    private MatPool.Scope mScope;
+    private PreprocessedFrame mFrame;
+    private GridDetector mGridDetector;
+    private int mCellSize = DEFAULT_CELL_SIZE;
+    private ConstraintDecoder mDecoder = new ConstraintDecoder();
+    private StageTimer mTimer = StageTimer.DISABLED;
+    private Logger mLogger = Logger.NONE;
+    private boolean error = false;
+
+    /**
+     * @param image
+     *            photo to scan; may be null when setPreprocessedFrame() is
+     *            used or only readGrid() is called
+     * @param recognizers
+     *            source of the per-worker digit recognizers
+     */
+    public SudokuScanner(ImageSource image, DigitRecognizerFactory recognizers) {
+        mImage = image;
+        mBlobExtract = new BlobExtract();
+        mRecognizers = recognizers;
+    }
+
+    /**
+     * token checked between pipeline stages; cancelling it makes
+     * getSudokuGridNums throw ScanCancelledException
+     */
+    public void setCancellationToken(CancellationToken token) {
+        mToken = token;
+    }
+
+    /**
+     * scratch Mats of the scan come from scope and stay valid until the
+     * caller closes it; without one getSudokuGridNums releases its Mats
+     * before returning
+     */
+    public void setMatScope(MatPool.Scope scope) {
+        mScope = scope;
+    }
+
+    /**
+     * frame already computed from the image (e.g. for the preview), so
+     * getSudokuGridNums does not preprocess the image again; its Mats must
+     * stay valid until getSudokuGridNums returns
+     */
+    public void setPreprocessedFrame(PreprocessedFrame frame) {
+        mFrame = frame;
+    }
+
+    /**
+     * finds the grid on a downscaled copy with detector and thresholds only
+     * the grid's region at full resolution; null (the default) searches the
+     * full resolution threshold image. Falls back to the full search when the
+     * detector finds nothing
+     */
+    public void setGridDetector(GridDetector detector) {
+        mGridDetector = detector;
+    }
+
+    /**
+     * the grid is warped to a square of 9 * cellSize pixels whatever the
+     * photo's resolution, so everything after the warp costs the same per
+     * puzzle
+     */
+    public void setCellSize(int cellSize) {
+        mCellSize = cellSize;
+    }
+
+    /**
+     * most threads reading the digits of one grid; 1 when several photos are
+     * already scanned in parallel
+     */
+    public void setRecognizerWorkers(int workers) {
+        mRecognizerWorkers = workers;
+    }
+
+    /**
+     * decoder that corrects misread digits from their ranked candidates so
+     * the grid obeys the sudoku rules; null keeps every cell's best reading
+     */
+    public void setConstraintDecoder(ConstraintDecoder decoder) {
+        mDecoder = decoder;
+    }
+
+    /**
+     * timer the stages of getSudokuGridNums are recorded with; the caller
+     * finishes it
+     */
+    public void setStageTimer(StageTimer timer) {
+        mTimer = timer;
+    }
+
+    /**
+     * logger of the pipeline's debug output
+     */
+    public void setLogger(Logger logger) {
+        mLogger = logger;
+    }
+
+    /**
+     * returns size of the warped grid
+     */
+    public Size getGridSize() {
+        return new Size(9 * mCellSize, 9 * mCellSize);
+    }
+
+    /**
+     * performs all the required image processing to find sudoku grid numbers
+     */
+    public int[][] getSudokuGridNums() throws IOException {
+        if (mScope != null) {
+            return findSudokuGridNums(mScope);
+        }
+        MatPool.Scope scope = new MatPool(0).openScope();
+        try {
+            return findSudokuGridNums(scope);
+        } finally {
+            scope.close();
+        }
+    }
+
+    private int[][] findSudokuGridNums(MatPool.Scope scope) throws IOException {
+        PreprocessedFrame frame = mFrame;
+        if (frame == null) {
+            mTimer.start(Stage.PREPROCESS);
+            frame = PreprocessedFrame.compute(mImage, scope);
+            mTimer.stop(Stage.PREPROCESS);
+        }
+        clean = frame.getRgba();
+        mToken.throwIfCancelled();
+        mTimer.start(Stage.GRID);
+        Mat result = extractSudokuGrid(frame, scope);
+        mTimer.stop(Stage.GRID);
+        if (error) {
+            return null;
+        }
+        mToken.throwIfCancelled();
+        return readGrid(result, scope);
+    }
+
+    /**
+     * reads the digits of a grid that was already found and warped (e.g. by
+     * BurstScanner); warpedGrid must be the inverted threshold of the grid at
+     * getGridSize()
+     *
+     * @return grid array, or null if the digit tiles and crops disagree
+     */
+    public int[][] readGrid(Mat warpedGrid) {
+        if (mScope != null) {
+            return readGrid(warpedGrid, mScope);
+        }
+        MatPool.Scope scope = new MatPool(0).openScope();
+        try {
+            return readGrid(warpedGrid, scope);
+        } finally {
+            scope.close();
+        }
+    }
+
+    private int[][] readGrid(Mat result, MatPool.Scope scope) {
+        mTimer.start(Stage.BLOBS);
+        List<Rect> boundingRects = mBlobExtract.getBoundingRects(result);
+        Queue<Mat> listmats = mBlobExtract.findCleanNumbers(result,
+                boundingRects);
+        for (Mat num : listmats) {
+            scope.track(num);
+        }
+        Mat rectMat = scope.track(mBlobExtract.drawRectsToMat(result, boundingRects));
+        mToken.throwIfCancelled();
+
+        boolean[][] containNums = findNumTiles(rectMat, boundingRects);
+        mTimer.stop(Stage.BLOBS);
+        int containCount = 0;
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                if (containNums[i][j]) {
+                    containCount++;
+                }
+            }
+        }
+        mLogger.debug("assert count", "containCount: " + containCount + ", listMats: "
+                + listmats.size());
+        if (containCount != listmats.size()) {
+            error = true;
+            return null;
+        }
+
+        mTimer.start(Stage.OCR);
+        int[][] grid = storeNumsToGrid(containNums, listmats);
+        mTimer.stop(Stage.OCR);
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                mLogger.debug("Grid", i + "," + j + ": " + grid[i][j] + "");
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * returns the warped, thresholded sudoku grid of mat; the caller owns the
+     * result
+     */
+    public Mat extractSudokuGrid(Mat mat) {
+        MatPool.Scope scope = new MatPool(0).openScope();
+        try {
+            Mat warpedImage = extractSudokuGrid(mat, scope);
+            scope.detach(warpedImage);
+            return warpedImage;
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * same as extractSudokuGrid(Mat) with every intermediate and the result
+     * taken from scope
+     */
+    public Mat extractSudokuGrid(Mat mat, MatPool.Scope scope) {
+        return extractSudokuGrid(PreprocessedFrame.compute(mat, scope), scope);
+    }
+
+    /**
+     * finds the grid in the frame and warps it to a top-down view of
+     * getGridSize(); the result is taken from scope
+     */
+    public Mat extractSudokuGrid(PreprocessedFrame frame, MatPool.Scope scope) {
+        return new GridExtractor(mGridDetector, getGridSize()).extract(frame, scope);
+    }
+
+    /**
+     * returns smaller mat based on bounds
+     *
+     * @param mat
+     *            source mat
+     * @param bounds
+     *            array: [0]=left, [1]=right, [2]=top, [3]=bottom
+     * @return smaller subMat according to bounds
+     */
+    public static Mat subMat(Mat mat, int[] bounds) {
+        int left = bounds[0];
+        int right = bounds[1];
+        int top = bounds[2];
+        int bot = bounds[3];
+
+        return mat.submat(top, bot, left, right);
+    }
+
+    /**
+     * finds corners of the sudoku grid in the Mat image using openCV HoughLines
+     * points of intersection
+     *
+     * @param mat
+     *            source image
+     * @return List of Points representing coordinates of the four corners
+     */
+    public static List<Point> findCorners(Mat mat) {
+        Mat lines = new Mat();
+        List<double[]> horizontalLines = new ArrayList<double[]>();
+        List<double[]> verticalLines = new ArrayList<double[]>();
+
+        Imgproc.HoughLinesP(mat, lines, 1, Math.PI / 180, 150);
+
+        for (int i = 0; i < lines.cols(); i++) {
+            double[] line = lines.get(0, i);
+            double x1 = line[0];
+            double y1 = line[1];
+            double x2 = line[2];
+            double y2 = line[3];
+            if (Math.abs(y2 - y1) < Math.abs(x2 - x1)) {
+                horizontalLines.add(line);
+            } else if (Math.abs(x2 - x1) < Math.abs(y2 - y1)) {
+                verticalLines.add(line);
+            }
+        }
+
+        // find the lines furthest from centre which will be the bounds for the
+        // grid
+        double[] topLine = horizontalLines.get(0);
+        double[] bottomLine = horizontalLines.get(0);
+        double[] leftLine = verticalLines.get(0);
+        double[] rightLine = verticalLines.get(0);
+
+        double xMin = 1000;
+        double xMax = 0;
+        double yMin = 1000;
+        double yMax = 0;
+
+        for (int i = 0; i < horizontalLines.size(); i++) {
+            if (horizontalLines.get(i)[1] < yMin
+                    || horizontalLines.get(i)[3] < yMin) {
+                topLine = horizontalLines.get(i);
+                yMin = horizontalLines.get(i)[1];
+            } else if (horizontalLines.get(i)[1] > yMax
+                    || horizontalLines.get(i)[3] > yMax) {
+                bottomLine = horizontalLines.get(i);
+                yMax = horizontalLines.get(i)[1];
+            }
+        }
+
+        for (int i = 0; i < verticalLines.size(); i++) {
+            if (verticalLines.get(i)[0] < xMin
+                    || verticalLines.get(i)[2] < xMin) {
+                leftLine = verticalLines.get(i);
+                xMin = verticalLines.get(i)[0];
+            } else if (verticalLines.get(i)[0] > xMax
+                    || verticalLines.get(i)[2] > xMax) {
+                rightLine = verticalLines.get(i);
+                xMax = verticalLines.get(i)[0];
+            }
+        }
+
+        // obtain four corners of sudoku grid
+        Point topLeft = ImageManipUtils.findCorner(topLine, leftLine);
+        Point topRight = ImageManipUtils.findCorner(topLine, rightLine);
+        Point bottomLeft = ImageManipUtils.findCorner(bottomLine, leftLine);
+        Point bottomRight = ImageManipUtils.findCorner(bottomLine, rightLine);
+
+        List<Point> corners = new ArrayList<Point>(4);
+        corners.add(topLeft);
+        corners.add(topRight);
+        corners.add(bottomLeft);
+        corners.add(bottomRight);
+
+        return corners;
+    }
+
+    /**
+     * finds which tile contains a number and which doesn't
+     *
+     * @param m
+     *            source mat image
+     * @param rects
+     *            List of Rects indicating where the numbers are located
+     * @return grid array indicating which tiles are empty; true == contains
+     *         number, false == empty
+     */
+    private boolean[][] findNumTiles(Mat m, List<Rect> rects) {
+        byte[][] arrayMat = addRectsToMat(m, rects);
+        boolean[][] numTileArray = new boolean[9][9];
+
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                numTileArray[i][j] = containsNumberTile(arrayMat, j, i);
+            }
+        }
+        return numTileArray;
+    }
+
+    /**
+     * determines if array holding mat contains a number
+     *
+     * @param matarray
+     *            array containing pixel info for mat
+     * @param xBound
+     *            from 0 to 8 the number of the tile
+     * @param yBound
+     *            from 0 to 8 the number of the tile
+     * @return true if empty, false otherwise
+     */
+    private boolean containsNumberTile(byte[][] matarray, int xBound, int yBound) {
+        int area = matarray.length * matarray[0].length;
+        int totalWhite = 0;
+        int tileWidth = matarray[0].length / 9;
+        int tileHeight = matarray.length / 9;
+        // skip the tile's right and bottom edge, where a neighbour's rect
+        // can reach in; 5px at the default cell size
+        int xStart = xBound * tileWidth;
+        int xEnd = xStart + tileWidth - tileWidth * 5 / DEFAULT_CELL_SIZE;
+        int yStart = yBound * tileHeight;
+        int yEnd = yStart + tileHeight - tileHeight * 5 / DEFAULT_CELL_SIZE;
+
+        for (int y = yStart; y < yEnd; y++) {
+            for (int x = xStart; x < xEnd; x++) {
+                if (matarray[y][x] == 1) {
+                    totalWhite++;
+                }
+            }
+        }
+        if (totalWhite > 0 * area) {
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private byte[][] addRectsToMat(Mat m, List<Rect> nums) {
+        byte[][] matArray = new byte[m.rows()][m.cols()];
+
+        for (Rect r : nums) {
+            for (int y = r.y; y < r.y + r.height - 1; y++) {
+                for (int x = r.x; x < r.x + r.width - 1; x++) {
+                    // set to 1 (white)
+                    matArray[y][x] = 1;
+                }
+            }
+        }
+        return matArray;
+    }
+
+    /**
+     * uses OCR to find the number in tile and stores results in 2D array;
+     * cells are recognized in parallel, one recognizer per worker thread.
+     * With a constraint decoder every cell keeps its top candidates and the
+     * most likely grid without repeated digits is returned
+     *
+     * @param tileContainNum
+     *            grid array indicating which tiles contains numbers
+     * @param nums
+     *            queue of Mats containing each individual number
+     * @return grid array representing sudoku puzzle (empty == 0)
+     */
+    public int[][] storeNumsToGrid(boolean[][] tileContainNum, Queue<Mat> nums) {
+        ParallelCellRecognizer recognizer = new ParallelCellRecognizer(mRecognizers,
+                mRecognizerWorkers);
+        if (mDecoder == null) {
+            return recognizer.recognize(tileContainNum, nums, mToken);
+        }
+        CellCandidates candidates = new CellCandidates(CELL_CANDIDATES);
+        recognizer.recognizeCandidates(tileContainNum, nums, candidates, mToken);
+        int[] board = new int[BitmaskSolver.CELLS];
+        if (mDecoder.decode(candidates, board)) {
+            int[] read = candidates.toBoard();
+            int corrected = 0;
+            for (int i = 0; i < board.length; i++) {
+                if (board[i] != read[i]) {
+                    corrected++;
+                }
+            }
+            mLogger.debug("constraint decoder", "corrected " + corrected + " cells in "
+                    + mDecoder.getNodes() + " nodes");
+        } else {
+            mLogger.debug("constraint decoder", "no valid grid in " + mDecoder.getNodes()
+                    + " nodes, keeping best readings");
+        }
+        return BitmaskSolver.toGrid(board);
+    }
+}
@@ -13,13 +13,17 @@ import org.opencv.core.Rect;
 import org.opencv.core.Scalar;
 import org.opencv.imgproc.Imgproc;
 
-import android.R;
-import android.util.Log;
 import com.reactlibrary.ImageManipUtils;
 
+/**
+ * Finds and crops the digits of a warped sudoku grid. Tile sizes are taken
+ * from the grid Mat (rows / 9, cols / 9), i.e. from the canonical size the
+ * grid was warped to
+ **/
 public class BlobExtract {
 
-    private static int GAP;
+    // half a tile height; rects closer than this in y are in the same row
+    private int GAP;
     public final static Scalar WHITE = new Scalar(255);
     public final static Scalar BLACK = new Scalar(0);
 
@@ -56,15 +60,17 @@ public class BlobExtract {
         List<Rect> boundRects = new ArrayList<Rect>();
 
         List<MatOfPoint> contours = new ArrayList<MatOfPoint>();
-        Imgproc.findContours(m, contours, new Mat(), Imgproc.RETR_LIST,
+        Mat hierarchy = new Mat();
+        Imgproc.findContours(m, contours, hierarchy, Imgproc.RETR_LIST,
                 Imgproc.CHAIN_APPROX_SIMPLE);
+        hierarchy.release();
         for (MatOfPoint mPoint : contours) {
             Rect rect = Imgproc.boundingRect(mPoint);
             if (isNumber(rect.width, rect.height, tileWidth, tileHeight)) {
                 boundRects.add(rect);
             }
+            mPoint.release();
         }
-        Log.d("rect count", boundRects.size() + "");
         return boundRects;
     }
 
@@ -98,14 +104,20 @@ public class BlobExtract {
         Mat tmp = new Mat(submat.size(), submat.type());
         submat.copyTo(tmp);
 
-        Imgproc.findContours(tmp, contours, new Mat(), Imgproc.RETR_LIST,
+        Mat hierarchy = new Mat();
+        Imgproc.findContours(tmp, contours, hierarchy, Imgproc.RETR_LIST,
                 Imgproc.CHAIN_APPROX_SIMPLE);
+        tmp.release();
+        hierarchy.release();
         for (int i = 0; i < contours.size(); i++) {
             Rect r = Imgproc.boundingRect(contours.get(i));
             if (isNoise(r.width, r.height, submat.cols(), submat.rows())) {
                 Imgproc.drawContours(submat, contours, i, BLACK, Core.FILLED);
             }
         }
+        for (MatOfPoint contour : contours) {
+            contour.release();
+        }
         // FileSaver.storeImage(ImgManipUtil.matToBitmap(result), "d");
         // return result;
     }
@@ -220,13 +232,15 @@ public class BlobExtract {
     }
 
     /**
-     * uses selection sort on input rects and outputs sorted queue
+     * uses selection sort on input rects and outputs sorted queue; rects
+     * are in the same row if their centres are closer in y than half a tile
+     * of the last getBoundingRects() image
      *
      * @param rects
      *            -- input list of Rect
      * @return sorted List
      */
-    private List<Rect> sortRects(List<Rect> rects) {
+    public List<Rect> sortRects(List<Rect> rects) {
         List<Rect> tmp = cloneRect(rects);
         List<Rect> sorted = new LinkedList<Rect>();
 
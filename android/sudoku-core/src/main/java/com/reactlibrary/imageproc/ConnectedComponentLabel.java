@@ -0,0 +1,241 @@
+package com.reactlibrary.imageproc;
+
+import java.util.Arrays;
+
+import org.opencv.core.Mat;
+
+import com.reactlibrary.PixelView;
+
+/**
+ * Uses implementation of connected component labelling algorithm(blob
+ * extraction) to extract the numbers in the sudoku image while eliminating
+ * non-number noise (i.e. gridlines, small blobs, etc) and returns byte array
+ * representation of image that contains only the numbers-- which is needed for
+ * OCR
+ *
+ * The image is processed as a single row-major buffer; label and per-blob
+ * statistics arrays are kept between calls so repeated scans do not allocate
+ * per pixel
+ **/
+public class ConnectedComponentLabel {
+
+    private final int BLACK = 0;
+    private final byte OCR_WHITE = 127;
+
+    // label of every pixel, row-major, 0 == background
+    private int[] labels = new int[0];
+    // per-label bounds and pixel count, indexed by root label
+    private int[] minX = new int[0];
+    private int[] maxX = new int[0];
+    private int[] minY = new int[0];
+    private int[] maxY = new int[0];
+    private int[] pixelCount = new int[0];
+
+    public ConnectedComponentLabel() {
+    }
+
+    /**
+     * wrapper method for blobextract
+     *
+     * @param mat
+     *            input source image
+     * @return view containing only the numbers (127) on black-- ready for OCR
+     *         usage
+     **/
+    public PixelView getPixelsForOCR(Mat mat) {
+        PixelView view = blobExtract(mat);
+        byte[] img = view.getData();
+        int size = view.size();
+        for (int i = 0; i < size; i++) {
+            if (img[i] != BLACK) {
+                img[i] = OCR_WHITE;
+            }
+        }
+        return view;
+    }
+
+    /**
+     * performs ccl on Mat image (first channel only)
+     *
+     * @param matImage
+     *            source Mat sudoku image
+     * @return view of the image containing only the numbers (without noise)
+     **/
+    public PixelView blobExtract(Mat matImage) {
+        PixelView view = PixelView.of(matImage);
+        blobExtract(view.getData(), view.getWidth(), view.getHeight());
+        return view;
+    }
+
+    /**
+     * performs ccl in place on a row-major 8 bit image; implements two-pass
+     * algorithm with 8-connectivity, collecting the bounding box of every blob
+     * during the second pass, then blacks out blobs that are not numbers
+     *
+     * @param img
+     *            row-major pixels, non-zero == foreground (edited directly)
+     * @param width
+     *            image width
+     * @param height
+     *            image height
+     * @return number of blobs kept as numbers
+     **/
+    public int blobExtract(byte[] img, int width, int height) {
+        int size = width * height;
+        if (labels.length < size) {
+            labels = new int[size];
+        }
+        int[] label = labels;
+        UnionFind unionFind = new UnionFind();
+        int currentLabel = 1;
+
+        // first pass; only the four neighbours already visited (west,
+        // north-west, north, north-east) can carry a label
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int i = row + x;
+                // if element in background, skip
+                if (img[i] == BLACK) {
+                    label[i] = 0;
+                    continue;
+                }
+
+                int w = x > 0 ? label[i - 1] : 0;
+                int nw = 0;
+                int n = 0;
+                int ne = 0;
+                if (y > 0) {
+                    int up = i - width;
+                    nw = x > 0 ? label[up - 1] : 0;
+                    n = label[up];
+                    ne = x < width - 1 ? label[up + 1] : 0;
+                }
+
+                // north touches the other three, so any equivalence among
+                // them was already recorded when they were labelled
+                if (n != 0) {
+                    label[i] = n;
+                } else if (ne != 0) {
+                    label[i] = ne;
+                    if (w != 0) {
+                        unionFind.union(ne, w);
+                    } else if (nw != 0) {
+                        unionFind.union(ne, nw);
+                    }
+                } else if (nw != 0) {
+                    label[i] = nw;
+                } else if (w != 0) {
+                    label[i] = w;
+                } else {
+                    label[i] = currentLabel;
+                    unionFind.addLabel(currentLabel);
+                    currentLabel++;
+                }
+            }
+        }
+
+        resetStats(currentLabel);
+        // second pass; relabel each element to its root and grow that root's
+        // bounding box
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                int i = row + x;
+                if (label[i] == 0) {
+                    continue;
+                }
+                int root = unionFind.find(label[i]);
+                label[i] = root;
+                if (x < minX[root]) {
+                    minX[root] = x;
+                }
+                if (x > maxX[root]) {
+                    maxX[root] = x;
+                }
+                if (y < minY[root]) {
+                    minY[root] = y;
+                }
+                if (y > maxY[root]) {
+                    maxY[root] = y;
+                }
+                pixelCount[root]++;
+            }
+        }
+
+        int numberCount = removeNoise(img, label, size, currentLabel, width,
+                height);
+        return numberCount;
+    }
+
+    /**
+     * fills in non-number blobs with black-- uses isNumber() to determine
+     * whether it is a number or not
+     *
+     * @return number of blobs kept
+     **/
+    private int removeNoise(byte[] img, int[] label, int size, int labelCount,
+                            int width, int height) {
+        int tileWidth = width / 9;
+        int tileHeight = height / 9;
+        int numberCount = 0;
+        // reuse pixelCount as keep flag: > 0 keeps the blob
+        for (int l = 1; l < labelCount; l++) {
+            if (pixelCount[l] == 0) {
+                continue;
+            }
+            if (isNumber(maxX[l] - minX[l], maxY[l] - minY[l], tileWidth,
+                    tileHeight)) {
+                numberCount++;
+            } else {
+                pixelCount[l] = 0;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            if (label[i] != 0 && pixelCount[label[i]] == 0) {
+                img[i] = BLACK;
+            }
+        }
+        return numberCount;
+    }
+
+    private void resetStats(int labelCount) {
+        if (pixelCount.length < labelCount) {
+            minX = new int[labelCount];
+            maxX = new int[labelCount];
+            minY = new int[labelCount];
+            maxY = new int[labelCount];
+            pixelCount = new int[labelCount];
+        }
+        Arrays.fill(minX, 0, labelCount, Integer.MAX_VALUE);
+        Arrays.fill(maxX, 0, labelCount, -1);
+        Arrays.fill(minY, 0, labelCount, Integer.MAX_VALUE);
+        Arrays.fill(maxY, 0, labelCount, -1);
+        Arrays.fill(pixelCount, 0, labelCount, 0);
+    }
+
+    /**
+     * checks if the bounding rectangle of a blob is the size of a number
+     *
+     * @return true if isNumber, false otherwise
+     **/
+    private boolean isNumber(int width, int height, int tileWidth,
+                             int tileHeight) {
+        // check if rect dimensions is greater than a tile's
+        if (width > tileWidth || height > tileHeight) {
+            return false;
+        }
+
+        // check this because a number rect should be narrow
+        if (width > height) {
+            return false;
+        }
+
+        // arbitrary parameters to check if rect is too small to be number
+        if (height < tileHeight / 3 || width < tileWidth / 6) {
+            return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,275 @@
+package com.reactlibrary.imageproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.core.TermCriteria;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.ImageManipUtils;
+import com.reactlibrary.MatPool;
+
+/**
+ * Follows the four grid corners from frame to frame. Each previous corner is
+ * looked for again in a small window around it: the outermost strong
+ * Shi-Tomasi corner of the window, refined with cornerSubPix, has to keep a
+ * good part of the strength it had when the grid was detected, and the new
+ * quadrilateral has to stay convex and about the same size. Only when that
+ * fails is the grid searched for again with GridDetector. The perspective transform to the
+ * warped grid is kept while the corners stay within tolerance of the ones it
+ * was computed from
+ **/
+public class CornerTracker {
+
+    // search window half size, fraction of the frame's long side
+    private static final double SEARCH_RADIUS = 0.03;
+    private static final int MIN_SEARCH_RADIUS = 12;
+    // a tracked corner must keep this part of its detection strength
+    private static final double MIN_STRENGTH_RATIO = 0.3;
+    // responses this close to a window's strongest are corner candidates
+    private static final double CANDIDATE_RATIO = 0.5;
+    // outward diagonal of upLeft, upRight, downLeft, downRight
+    private static final Point[] DIAGONALS = { new Point(-1, -1),
+            new Point(1, -1), new Point(-1, 1), new Point(1, 1) };
+    // allowed change of the grid area between two frames
+    private static final double MAX_AREA_CHANGE = 0.2;
+    // corner movement, in pixels, that keeps the cached transform
+    private static final double TRANSFORM_TOLERANCE = 1.0;
+
+    private final GridDetector detector;
+    private List<Point> corners;
+    private final double[] strength = new double[4];
+    private boolean tracked = false;
+
+    private Mat transform;
+    // empty third operand of gemm, which beta 0 ignores
+    private final Mat noAddend = new Mat();
+    private List<Point> transformCorners;
+    private Size transformSize;
+
+    public CornerTracker(GridDetector detector) {
+        this.detector = detector;
+    }
+
+    /**
+     * finds the grid corners in grey, tracking them from the previous frame
+     * when possible
+     *
+     * @return upLeft, upRight, downLeft, downRight, or null if there is no
+     *         grid
+     **/
+    public List<Point> track(Mat grey, MatPool.Scope scope) {
+        if (corners != null) {
+            List<Point> next = follow(grey, scope);
+            if (next != null) {
+                corners = next;
+                tracked = true;
+                return corners;
+            }
+        }
+        tracked = false;
+        corners = detector.detect(grey, scope);
+        if (corners != null) {
+            int radius = searchRadius(grey);
+            for (int i = 0; i < 4; i++) {
+                strength[i] = outerCorner(grey, corners.get(i), radius,
+                        DIAGONALS[i], scope)[2];
+            }
+        }
+        return corners;
+    }
+
+    /**
+     * returns true if the last track() followed the corners instead of
+     * detecting the grid from scratch
+     **/
+    public boolean wasTracked() {
+        return tracked;
+    }
+
+    /**
+     * returns transform from the frame to a warped grid of the given size;
+     * owned by the tracker and valid until the next call
+     *
+     * @throws IllegalStateException
+     *             if the last track() found no grid
+     **/
+    public Mat getTransform(Size size) {
+        checkCorners();
+        if (transform != null && size.equals(transformSize)
+                && maxDistance(corners, transformCorners) <= TRANSFORM_TOLERANCE) {
+            return transform;
+        }
+        if (transform != null) {
+            transform.release();
+        }
+        transform = ImageManipUtils.getPerspectiveTransform(corners.get(0),
+                corners.get(1), corners.get(2), corners.get(3), size);
+        transformCorners = copy(corners);
+        transformSize = size.clone();
+        return transform;
+    }
+
+    /**
+     * warps the current grid of grey to a thresholded top-down view with the
+     * cached transform, thresholding only the grid's region
+     *
+     * @return inverted threshold of the grid, taken from scope
+     * @throws IllegalStateException
+     *             if the last track() found no grid
+     **/
+    public Mat warpGrid(Mat grey, Size size, MatPool.Scope scope) {
+        checkCorners();
+        Rect roi = GridDetector.paddedBounds(grey, corners);
+        Mat roiBinary = GridDetector.threshold(scope.track(grey.submat(roi)), scope);
+
+        // the transform maps frame coordinates; shift it to the ROI's
+        Mat shift = scope.obtain(3, 3, CvType.CV_64FC1);
+        shift.put(0, 0, 1, 0, roi.x, 0, 1, roi.y, 0, 0, 1);
+        Mat local = scope.obtain(3, 3, CvType.CV_64FC1);
+        Core.gemm(getTransform(size), shift, 1, noAddend, 0, local);
+        Mat dst = scope.obtain(size, CvType.CV_8UC1);
+        Imgproc.warpPerspective(roiBinary, dst, local, size);
+        return dst;
+    }
+
+    /**
+     * forgets the corners so the next frame is detected from scratch
+     **/
+    public void reset() {
+        corners = null;
+        tracked = false;
+        if (transform != null) {
+            transform.release();
+            transform = null;
+        }
+    }
+
+    private void checkCorners() {
+        if (corners == null) {
+            throw new IllegalStateException("No grid tracked");
+        }
+    }
+
+    private List<Point> follow(Mat grey, MatPool.Scope scope) {
+        int radius = searchRadius(grey);
+        List<Point> next = new ArrayList<Point>(4);
+        for (int i = 0; i < 4; i++) {
+            double[] found = outerCorner(grey, corners.get(i), radius,
+                    DIAGONALS[i], scope);
+            if (found == null || found[2] < MIN_STRENGTH_RATIO * strength[i]) {
+                return null;
+            }
+            next.add(new Point(found[0], found[1]));
+        }
+        MatOfPoint2f points = new MatOfPoint2f(next.toArray(new Point[4]));
+        Imgproc.cornerSubPix(grey, points, new Size(3, 3), new Size(-1, -1),
+                new TermCriteria(TermCriteria.EPS + TermCriteria.COUNT, 10, 0.1));
+        Point[] refined = points.toArray();
+        points.release();
+        for (int i = 0; i < 4; i++) {
+            next.set(i, refined[i]);
+        }
+
+        double area = quadArea(next);
+        double previous = quadArea(corners);
+        if (Math.abs(area - previous) > MAX_AREA_CHANGE * previous) {
+            return null;
+        }
+        // upLeft, upRight, downRight, downLeft around the outline
+        MatOfPoint outline = new MatOfPoint(next.get(0), next.get(1),
+                next.get(3), next.get(2));
+        boolean convex = Imgproc.isContourConvex(outline);
+        outline.release();
+        return convex ? next : null;
+    }
+
+    /**
+     * returns {x, y, strength} for the corner of the grid's outline within
+     * radius of around: of the window's Shi-Tomasi responses that come close
+     * to its strongest one, the one furthest out along the corner's diagonal
+     * (a thick border line has an inner corner as strong as the outer one).
+     * Returns null if the window is empty
+     *
+     * @param diagonal
+     *            outward direction of the corner, e.g. (-1, -1) for upLeft
+     **/
+    private static double[] outerCorner(Mat grey, Point around, int radius,
+                                        Point diagonal, MatPool.Scope scope) {
+        int left = Math.max(0, (int) Math.round(around.x) - radius);
+        int top = Math.max(0, (int) Math.round(around.y) - radius);
+        int right = Math.min(grey.cols(), (int) Math.round(around.x) + radius + 1);
+        int bottom = Math.min(grey.rows(), (int) Math.round(around.y) + radius + 1);
+        if (right - left < 3 || bottom - top < 3) {
+            return null;
+        }
+        Mat window = scope.track(grey.submat(top, bottom, left, right));
+        Mat eigen = scope.obtain(window.size(), CvType.CV_32FC1);
+        Imgproc.cornerMinEigenVal(window, eigen, 3);
+        Core.MinMaxLocResult max = Core.minMaxLoc(eigen);
+        if (max.maxVal <= 0) {
+            return new double[] { around.x, around.y, 0 };
+        }
+
+        Mat strong = scope.obtain(window.size(), CvType.CV_8UC1);
+        Imgproc.threshold(eigen, eigen, CANDIDATE_RATIO * max.maxVal, 255,
+                Imgproc.THRESH_BINARY);
+        eigen.convertTo(strong, CvType.CV_8UC1);
+        MatOfPoint candidates = new MatOfPoint();
+        Core.findNonZero(strong, candidates);
+        Point best = max.maxLoc;
+        double bestScore = diagonal.x * best.x + diagonal.y * best.y;
+        for (Point candidate : candidates.toArray()) {
+            double score = diagonal.x * candidate.x + diagonal.y * candidate.y;
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidate;
+            }
+        }
+        candidates.release();
+        return new double[] { left + best.x, top + best.y, max.maxVal };
+    }
+
+    private static int searchRadius(Mat grey) {
+        return Math.max(MIN_SEARCH_RADIUS,
+                (int) (SEARCH_RADIUS * Math.max(grey.cols(), grey.rows())));
+    }
+
+    private static double quadArea(List<Point> quad) {
+        // shoelace over upLeft, upRight, downRight, downLeft
+        Point[] p = { quad.get(0), quad.get(1), quad.get(3), quad.get(2) };
+        double sum = 0;
+        for (int i = 0; i < 4; i++) {
+            Point a = p[i];
+            Point b = p[(i + 1) % 4];
+            sum += a.x * b.y - b.x * a.y;
+        }
+        return Math.abs(sum) / 2;
+    }
+
+    private static double maxDistance(List<Point> a, List<Point> b) {
+        double max = 0;
+        for (int i = 0; i < a.size(); i++) {
+            double dx = a.get(i).x - b.get(i).x;
+            double dy = a.get(i).y - b.get(i).y;
+            max = Math.max(max, Math.sqrt(dx * dx + dy * dy));
+        }
+        return max;
+    }
+
+    private static List<Point> copy(List<Point> points) {
+        List<Point> copy = new ArrayList<Point>(points.size());
+        for (Point point : points) {
+            copy.add(point.clone());
+        }
+        return copy;
+    }
+}
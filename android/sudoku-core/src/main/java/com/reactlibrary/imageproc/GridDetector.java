@@ -0,0 +1,283 @@
+package com.reactlibrary.imageproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.core.TermCriteria;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.ImageManipUtils;
+import com.reactlibrary.MatPool;
+
+/**
+ * Coarse-to-fine sudoku grid detection. The grid contour is searched on a
+ * copy of the grey image downscaled to detectDimension, its four corners are
+ * scaled back and refined with cornerSubPix in small windows of the full
+ * resolution image, and only the grid's bounding box of the original pixels
+ * is thresholded and warped. Contour finding cost so stays the same whatever
+ * the camera resolution. Paper around the grid gives the page its own
+ * contour enclosing the grid's, so every large quadrilateral is a candidate
+ * and the one whose warp has lines where a 9x9 grid has them wins
+ **/
+public class GridDetector {
+
+    public static final int DEFAULT_DETECT_DIMENSION = 640;
+    // grid must cover this fraction of the downscaled image
+    private static final double MIN_AREA_FRACTION = 0.05;
+    // pixels around the grid bounding box thresholded with it, so the
+    // adaptive threshold block sees the same neighbourhood at the border
+    private static final int ROI_PADDING = 8;
+    // side of the square candidates are warped to for the grid line check
+    private static final int SCORE_SIDE = 180;
+    // pixels either side of an expected line that may hold it
+    private static final int SCORE_BAND = 3;
+    // fraction of a line's length that must be white for it to count
+    private static final double LINE_COVERAGE = 0.5;
+
+    private final int detectDimension;
+
+    public GridDetector() {
+        this(DEFAULT_DETECT_DIMENSION);
+    }
+
+    /**
+     * @param detectDimension
+     *            long side in pixels of the image the contour is searched on
+     **/
+    public GridDetector(int detectDimension) {
+        this.detectDimension = detectDimension;
+    }
+
+    /**
+     * finds the four grid corners in grey
+     *
+     * @param grey
+     *            full resolution CV_8UC1 image
+     * @param scope
+     *            source of the scratch Mats
+     * @return upLeft, upRight, downLeft, downRight in grey's coordinates, or
+     *         null if no grid-sized contour was found
+     **/
+    public List<Point> detect(Mat grey, MatPool.Scope scope) {
+        int longSide = Math.max(grey.cols(), grey.rows());
+        double scale = Math.min(1.0, (double) detectDimension / longSide);
+        Mat small = grey;
+        if (scale < 1.0) {
+            Size smallSize = new Size(Math.round(grey.cols() * scale),
+                    Math.round(grey.rows() * scale));
+            small = scope.obtain(smallSize, CvType.CV_8UC1);
+            Imgproc.resize(grey, small, smallSize, 0, 0, Imgproc.INTER_AREA);
+        }
+        Mat binary = threshold(small, scope);
+
+        List<MatOfPoint> contours = new ArrayList<MatOfPoint>();
+        Mat hierarchy = scope.track(new Mat());
+        Imgproc.findContours(binary, contours, hierarchy,
+                Imgproc.RETR_LIST, Imgproc.CHAIN_APPROX_SIMPLE);
+        List<Point> corners = null;
+        int bestScore = -1;
+        double bestArea = 0;
+        double minArea = small.total() * MIN_AREA_FRACTION;
+        for (MatOfPoint contour : contours) {
+            double area = Imgproc.contourArea(contour);
+            if (area > minArea) {
+                List<Point> quad = quadCorners(contour);
+                int score = gridScore(binary, quad, scope);
+                // most grid lines first, then the biggest
+                if (score > bestScore || (score == bestScore && area > bestArea)) {
+                    bestScore = score;
+                    bestArea = area;
+                    corners = quad;
+                }
+            }
+        }
+        for (MatOfPoint contour : contours) {
+            contour.release();
+        }
+        if (corners == null) {
+            return null;
+        }
+
+        for (Point corner : corners) {
+            corner.x /= scale;
+            corner.y /= scale;
+        }
+        if (scale < 1.0) {
+            refine(grey, corners, (int) Math.ceil(1.0 / scale) + 2);
+        }
+        return corners;
+    }
+
+    /**
+     * thresholds the bounding box of the corners in grey and warps it to a
+     * top-down view of the given size
+     *
+     * @param corners
+     *            upLeft, upRight, downLeft, downRight from detect()
+     * @return inverted threshold of the grid, taken from scope
+     **/
+    public Mat warpGrid(Mat grey, List<Point> corners, Size size,
+                        MatPool.Scope scope) {
+        Rect roi = paddedBounds(grey, corners);
+        int left = roi.x;
+        int top = roi.y;
+
+        Mat roiGrey = scope.track(grey.submat(roi));
+        Mat roiBinary = threshold(roiGrey, scope);
+        Point[] local = new Point[4];
+        for (int i = 0; i < 4; i++) {
+            local[i] = new Point(corners.get(i).x - left, corners.get(i).y - top);
+        }
+        return ImageManipUtils.fixPerspective(local[0], local[1], local[2],
+                local[3], roiBinary, scope.obtain(size, CvType.CV_8UC1), size);
+    }
+
+    /**
+     * returns bounding box of the corners with ROI_PADDING around it, clipped
+     * to grey
+     **/
+    static Rect paddedBounds(Mat grey, List<Point> corners) {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = 0;
+        double maxY = 0;
+        for (Point corner : corners) {
+            minX = Math.min(minX, corner.x);
+            minY = Math.min(minY, corner.y);
+            maxX = Math.max(maxX, corner.x);
+            maxY = Math.max(maxY, corner.y);
+        }
+        int left = Math.max(0, (int) Math.floor(minX) - ROI_PADDING);
+        int top = Math.max(0, (int) Math.floor(minY) - ROI_PADDING);
+        int right = Math.min(grey.cols(), (int) Math.ceil(maxX) + ROI_PADDING + 1);
+        int bottom = Math.min(grey.rows(), (int) Math.ceil(maxY) + ROI_PADDING + 1);
+        return new Rect(left, top, right - left, bottom - top);
+    }
+
+    /**
+     * same blur, adaptive threshold and invert the full resolution path uses
+     **/
+    static Mat threshold(Mat grey, MatPool.Scope scope) {
+        Mat binary = ImageManipUtils.applyGausianBlur(grey,
+                scope.obtain(grey.size(), CvType.CV_8UC1));
+        ImageManipUtils.adaptiveThreshold(binary, binary);
+        ImageManipUtils.applyBitwiseNot(binary, binary);
+        return binary;
+    }
+
+    /**
+     * returns how many of the 20 lines of a 9x9 grid the quad has: binary is
+     * warped to a square and each expected line counts when its band is white
+     * along most of its length
+     **/
+    private static int gridScore(Mat binary, List<Point> quad, MatPool.Scope scope) {
+        Mat warped = ImageManipUtils.fixPerspective(quad.get(0), quad.get(1),
+                quad.get(2), quad.get(3), binary,
+                scope.obtain(SCORE_SIDE, SCORE_SIDE, CvType.CV_8UC1),
+                new Size(SCORE_SIDE, SCORE_SIDE));
+        byte[] pixels = new byte[SCORE_SIDE * SCORE_SIDE];
+        warped.get(0, 0, pixels);
+        int score = 0;
+        for (int line = 0; line <= 9; line++) {
+            int at = Math.min(SCORE_SIDE - 1, line * SCORE_SIDE / 9);
+            int from = Math.max(0, at - SCORE_BAND);
+            int to = Math.min(SCORE_SIDE - 1, at + SCORE_BAND);
+            int rows = 0;
+            int cols = 0;
+            for (int i = 0; i < SCORE_SIDE; i++) {
+                boolean rowHit = false;
+                boolean colHit = false;
+                for (int j = from; j <= to; j++) {
+                    rowHit |= pixels[j * SCORE_SIDE + i] != 0;
+                    colHit |= pixels[i * SCORE_SIDE + j] != 0;
+                }
+                if (rowHit) {
+                    rows++;
+                }
+                if (colHit) {
+                    cols++;
+                }
+            }
+            if (rows >= SCORE_SIDE * LINE_COVERAGE) {
+                score++;
+            }
+            if (cols >= SCORE_SIDE * LINE_COVERAGE) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * returns the contour's four corners; the polygon approximation when it is
+     * a quadrilateral, otherwise the extreme points along the diagonals
+     **/
+    private static List<Point> quadCorners(MatOfPoint contour) {
+        MatOfPoint2f curve = new MatOfPoint2f(contour.toArray());
+        MatOfPoint2f approx = new MatOfPoint2f();
+        double perimeter = Imgproc.arcLength(curve, true);
+        Imgproc.approxPolyDP(curve, approx, 0.02 * perimeter, true);
+        Point[] points = approx.total() == 4 ? approx.toArray()
+                : curve.toArray();
+        curve.release();
+        approx.release();
+
+        Point upLeft = points[0];
+        Point upRight = points[0];
+        Point downLeft = points[0];
+        Point downRight = points[0];
+        for (Point p : points) {
+            if (p.x + p.y < upLeft.x + upLeft.y) {
+                upLeft = p;
+            }
+            if (p.x + p.y > downRight.x + downRight.y) {
+                downRight = p;
+            }
+            if (p.x - p.y > upRight.x - upRight.y) {
+                upRight = p;
+            }
+            if (p.x - p.y < downLeft.x - downLeft.y) {
+                downLeft = p;
+            }
+        }
+        List<Point> corners = new ArrayList<Point>(4);
+        corners.add(upLeft.clone());
+        corners.add(upRight.clone());
+        corners.add(downLeft.clone());
+        corners.add(downRight.clone());
+        return corners;
+    }
+
+    /**
+     * moves each scaled-up corner to the sub-pixel corner within halfWindow
+     * pixels of it in the full resolution image
+     **/
+    private static void refine(Mat grey, List<Point> corners, int halfWindow) {
+        for (Point corner : corners) {
+            corner.x = Math.min(Math.max(corner.x, 0), grey.cols() - 1);
+            corner.y = Math.min(Math.max(corner.y, 0), grey.rows() - 1);
+        }
+        MatOfPoint2f points = new MatOfPoint2f(corners.toArray(new Point[4]));
+        Imgproc.cornerSubPix(grey, points, new Size(halfWindow, halfWindow),
+                new Size(-1, -1), new TermCriteria(TermCriteria.EPS
+                        + TermCriteria.COUNT, 20, 0.1));
+        Point[] refined = points.toArray();
+        points.release();
+        for (int i = 0; i < 4; i++) {
+            Point corner = corners.get(i);
+            // a corner that ran off its window found something else
+            if (Math.abs(refined[i].x - corner.x) <= halfWindow
+                    && Math.abs(refined[i].y - corner.y) <= halfWindow) {
+                corner.x = refined[i].x;
+                corner.y = refined[i].y;
+            }
+        }
+    }
+}
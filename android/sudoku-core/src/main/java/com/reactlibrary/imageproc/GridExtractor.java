@@ -0,0 +1,118 @@
+package com.reactlibrary.imageproc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Point;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.ImageManipUtils;
+import com.reactlibrary.MatPool;
+import com.reactlibrary.PreprocessedFrame;
+
+/**
+ * Finds the sudoku grid of a preprocessed frame and warps it to a top-down
+ * square. With a GridDetector the grid is searched on a downscaled copy;
+ * without one, or when it finds nothing, the biggest polygon of the full
+ * resolution threshold image is taken
+ **/
+public class GridExtractor {
+
+    private final GridDetector detector;
+    private final Size gridSize;
+
+    /**
+     * @param detector
+     *            coarse-to-fine detector, or null to only search the full
+     *            resolution threshold image
+     * @param gridSize
+     *            size the grid is warped to
+     **/
+    public GridExtractor(GridDetector detector, Size gridSize) {
+        this.detector = detector;
+        this.gridSize = gridSize;
+    }
+
+    /**
+     * returns the warped grid of frame, taken from scope; an empty Mat if the
+     * frame has no polygon to warp
+     **/
+    public Mat extract(PreprocessedFrame frame, MatPool.Scope scope) {
+        if (detector != null) {
+            Mat grey = frame.getGrey();
+            List<Point> corners = detector.detect(grey, scope);
+            if (corners != null) {
+                return detector.warpGrid(grey, corners, gridSize, scope);
+            }
+        }
+        Mat resultImage = frame.getBinary();
+
+        List<MatOfPoint> contours = new ArrayList<>();
+        Mat hierarchy = scope.track(new Mat());
+        Imgproc.findContours(resultImage, contours, hierarchy, Imgproc.RETR_EXTERNAL, Imgproc.CHAIN_APPROX_SIMPLE);
+
+        Mat warpedImage = scope.obtain();
+        int biggestPolygonIndex = getBiggestPolygonIndex(contours);
+        if (biggestPolygonIndex != 0) {
+            final MatOfPoint biggest = contours.get(biggestPolygonIndex);
+            List<Point> corners = getCornersFromPoints(biggest.toList());
+
+            warpedImage = ImageManipUtils.fixPerspective(corners.get(0), corners.get(1), corners.get(2), corners.get(3), resultImage,
+                    scope.obtain(gridSize, CvType.CV_8UC1), gridSize);
+        }
+        for (MatOfPoint contour : contours) {
+            contour.release();
+        }
+        return warpedImage;
+    }
+
+    public static int getBiggestPolygonIndex(List<MatOfPoint> contours) {
+        int maxIndex = 0;
+        double maxArea = 0;
+        for (int i = 0; i < contours.size(); i++) {
+            if (Imgproc.contourArea(contours.get(i)) > maxArea) {
+                maxArea = Imgproc.contourArea(contours.get(i));
+                maxIndex = i;
+            }
+        }
+        return maxIndex;
+    }
+
+    private static List<Point> getCornersFromPoints(final List<Point> points) {
+        double minX = 0;
+        double minY = 0;
+        double maxX = 0;
+        double maxY = 0;
+
+        for (Point point : points) {
+            double x = point.x;
+            double y = point.y;
+
+            if (minX == 0 || x < minX) {
+                minX = x;
+            }
+            if (minY == 0 || y < minY) {
+                minY = y;
+            }
+            if (maxX == 0 || x > maxX) {
+                maxX = x;
+            }
+            if (maxY == 0 || y > maxY) {
+                maxY = y;
+            }
+        }
+
+        List<Point> corners = new ArrayList<>(4);
+
+        corners.add(new Point(minX, minY)); // upLeft
+        corners.add(new Point(maxX, minY)); // upRight
+        corners.add(new Point(minX, maxY)); // downLeft
+        corners.add(new Point(maxX, maxY)); // downRight
+
+        return corners;
+    }
+}
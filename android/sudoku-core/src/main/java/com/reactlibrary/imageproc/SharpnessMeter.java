@@ -0,0 +1,97 @@
+package com.reactlibrary.imageproc;
+
+import java.util.List;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfDouble;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.MatPool;
+
+/**
+ * Scores how sharp an image is as the variance of its Laplacian: edges in
+ * focus give a wide spread of responses, a blurred image a narrow one. The
+ * grey image (or a region of it, e.g. the grid) is first downscaled to
+ * sampleDimension, which keeps the check cheap enough for every preview
+ * frame and makes scores comparable between camera resolutions
+ **/
+public class SharpnessMeter {
+
+    public static final int DEFAULT_SAMPLE_DIMENSION = 512;
+    // scores below this are blurry; no Gaussian-blurred benchmark corpus
+    // photo scoring above it lost its digits (highest failure: 57.8). Long
+    // motion blur keeps scores high and is not caught at any threshold
+    public static final double DEFAULT_BLUR_THRESHOLD = 60;
+
+    private final int sampleDimension;
+    private final double blurThreshold;
+
+    public SharpnessMeter() {
+        this(DEFAULT_SAMPLE_DIMENSION, DEFAULT_BLUR_THRESHOLD);
+    }
+
+    /**
+     * @param sampleDimension
+     *            long side in pixels the image is scored at
+     * @param blurThreshold
+     *            score below which isBlurry() is true
+     **/
+    public SharpnessMeter(int sampleDimension, double blurThreshold) {
+        this.sampleDimension = sampleDimension;
+        this.blurThreshold = blurThreshold;
+    }
+
+    /**
+     * returns Laplacian variance of the whole grey image
+     **/
+    public double score(Mat grey, MatPool.Scope scope) {
+        return score(grey, (Rect) null, scope);
+    }
+
+    /**
+     * returns Laplacian variance of grey inside roi
+     *
+     * @param grey
+     *            CV_8UC1 image
+     * @param roi
+     *            region to score, null for the whole image
+     **/
+    public double score(Mat grey, Rect roi, MatPool.Scope scope) {
+        Mat region = roi == null ? grey : scope.track(grey.submat(roi));
+        int longSide = Math.max(region.cols(), region.rows());
+        if (longSide > sampleDimension) {
+            double factor = (double) sampleDimension / longSide;
+            Size size = new Size(Math.max(1, Math.round(region.cols() * factor)),
+                    Math.max(1, Math.round(region.rows() * factor)));
+            Mat small = scope.obtain(size, CvType.CV_8UC1);
+            Imgproc.resize(region, small, size, 0, 0, Imgproc.INTER_AREA);
+            region = small;
+        }
+        Mat laplacian = scope.obtain(region.size(), CvType.CV_16SC1);
+        Imgproc.Laplacian(region, laplacian, CvType.CV_16S);
+        MatOfDouble mean = new MatOfDouble();
+        MatOfDouble stdDev = new MatOfDouble();
+        Core.meanStdDev(laplacian, mean, stdDev);
+        double deviation = stdDev.toArray()[0];
+        mean.release();
+        stdDev.release();
+        return deviation * deviation;
+    }
+
+    /**
+     * returns Laplacian variance of the grid's bounding box, e.g. corners
+     * from GridDetector or CornerTracker
+     **/
+    public double score(Mat grey, List<Point> corners, MatPool.Scope scope) {
+        return score(grey, GridDetector.paddedBounds(grey, corners), scope);
+    }
+
+    public boolean isBlurry(double score) {
+        return score < blurThreshold;
+    }
+}
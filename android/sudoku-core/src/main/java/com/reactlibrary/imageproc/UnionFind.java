@@ -0,0 +1,79 @@
+package com.reactlibrary.imageproc;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint-set forest over non-negative integer labels, used by the
+ * connected component labelling to record label equivalences. Labels index
+ * straight into primitive arrays (grown on demand) so no boxing or hashing
+ * happens per pixel; find uses iterative path compression and union merges
+ * by rank
+ **/
+public class UnionFind {
+
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] parent;
+    private int[] rank;
+
+    public UnionFind() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity
+     *            expected highest label + 1; arrays still grow past it
+     **/
+    public UnionFind(int capacity) {
+        parent = new int[Math.max(capacity, 1)];
+        rank = new int[parent.length];
+    }
+
+    /**
+     * returns the root label of the set containing n
+     **/
+    public int find(int n) {
+        int root = n;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        // second walk points every label on the path straight at the root
+        while (parent[n] != root) {
+            int next = parent[n];
+            parent[n] = root;
+            n = next;
+        }
+        return root;
+    }
+
+    public void union(int i, int j) {
+        i = find(i);
+        j = find(j);
+
+        if (i == j)
+            return;
+
+        if (rank[i] < rank[j]) {
+            parent[i] = j;
+        } else if (rank[i] > rank[j]) {
+            parent[j] = i;
+        } else {
+            parent[j] = i;
+            rank[i]++;
+        }
+    }
+
+    public void addLabel(int i) {
+        if (i >= parent.length) {
+            grow(i + 1);
+        }
+        parent[i] = i; // make sure intial key == value
+        rank[i] = 0;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, parent.length * 2);
+        parent = Arrays.copyOf(parent, capacity);
+        rank = Arrays.copyOf(rank, capacity);
+    }
+}
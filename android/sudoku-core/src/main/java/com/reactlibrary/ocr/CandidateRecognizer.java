@@ -0,0 +1,24 @@
+package com.reactlibrary.ocr;
+
+import org.opencv.core.Mat;
+
+/**
+ * DigitRecognizer that can also rank the digits a cell might be, so a
+ * misread can be corrected against the sudoku rules
+ */
+public interface CandidateRecognizer extends DigitRecognizer {
+
+    /**
+     * writes the most likely digits of the cell, best first
+     *
+     * @param digit
+     *            CV_8UC1 image of the digit, white on black
+     * @param digits
+     *            receives digits 1-9; its length is the most candidates
+     *            wanted
+     * @param confidences
+     *            receives the confidence, in (0, 1], of each digit
+     * @return number of candidates written
+     */
+    int recognizeCandidates(Mat digit, int[] digits, float[] confidences);
+}
@@ -0,0 +1,142 @@
+package com.reactlibrary.ocr;
+
+import org.opencv.core.Mat;
+
+/**
+ * Pure Java DigitRecognizer: normalizes the glyph with GlyphNormalizer and
+ * votes among the k nearest prototypes by Hamming distance. A 16x16 glyph is
+ * four longs, so comparing against a few hundred prototypes is a few
+ * thousand bitCount calls per cell. Candidates are ranked by each digit's
+ * nearest prototype, with confidences from a softmax over those distances
+ */
+public class DigitClassifier implements CandidateRecognizer {
+
+    public static final int DEFAULT_K = 3;
+    // distance, in bits, that makes a digit e times less likely
+    private static final double TEMPERATURE = 4;
+
+    private final DigitPrototypes prototypes;
+    private final int k;
+    private final GlyphNormalizer normalizer = new GlyphNormalizer();
+    // k nearest so far, sorted by distance
+    private final int[] nearestLabel;
+    private final int[] nearestDistance;
+    private final int[] votes = new int[10];
+    private final int[] labelDistance = new int[10];
+    private final double[] labelScore = new double[10];
+
+    public DigitClassifier(DigitPrototypes prototypes) {
+        this(prototypes, DEFAULT_K);
+    }
+
+    public DigitClassifier(DigitPrototypes prototypes, int k) {
+        if (prototypes.size() == 0) {
+            throw new IllegalArgumentException("no digit prototypes");
+        }
+        this.prototypes = prototypes;
+        this.k = Math.min(k, prototypes.size());
+        nearestLabel = new int[this.k];
+        nearestDistance = new int[this.k];
+    }
+
+    @Override
+    public int recognize(Mat digit) {
+        return classify(normalizer.normalize(digit));
+    }
+
+    @Override
+    public int recognizeCandidates(Mat digit, int[] digits, float[] confidences) {
+        return rank(normalizer.normalize(digit), digits, confidences);
+    }
+
+    /**
+     * writes the digits with the nearest prototypes, best first, and their
+     * confidences
+     *
+     * @return number of candidates written, at most digits.length
+     */
+    public int rank(long[] glyph, int[] digits, float[] confidences) {
+        for (int d = 0; d < labelDistance.length; d++) {
+            labelDistance[d] = Integer.MAX_VALUE;
+        }
+        int nearest = Integer.MAX_VALUE;
+        for (int i = 0; i < prototypes.size(); i++) {
+            int label = prototypes.getLabel(i);
+            int distance = distance(glyph, prototypes.getGlyph(i));
+            if (distance < labelDistance[label]) {
+                labelDistance[label] = distance;
+                nearest = Math.min(nearest, distance);
+            }
+        }
+
+        double total = 0;
+        for (int d = 1; d < labelScore.length; d++) {
+            labelScore[d] = labelDistance[d] == Integer.MAX_VALUE ? 0
+                    : Math.exp(-(labelDistance[d] - nearest) / TEMPERATURE);
+            total += labelScore[d];
+        }
+        int count = 0;
+        while (count < digits.length) {
+            int bestLabel = 0;
+            for (int d = 1; d < labelScore.length; d++) {
+                if (labelScore[d] > 0
+                        && (bestLabel == 0 || labelScore[d] > labelScore[bestLabel])) {
+                    bestLabel = d;
+                }
+            }
+            if (bestLabel == 0) {
+                break;
+            }
+            digits[count] = bestLabel;
+            confidences[count] = (float) (labelScore[bestLabel] / total);
+            labelScore[bestLabel] = 0;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param glyph
+     *            bits from GlyphNormalizer
+     * @return digit voted by the nearest prototypes; ties go to the nearer one
+     */
+    public int classify(long[] glyph) {
+        int found = 0;
+        for (int i = 0; i < prototypes.size(); i++) {
+            int distance = distance(glyph, prototypes.getGlyph(i));
+            if (found == k && distance >= nearestDistance[k - 1]) {
+                continue;
+            }
+            // insertion into the sorted k nearest
+            int pos = found < k ? found++ : k - 1;
+            while (pos > 0 && nearestDistance[pos - 1] > distance) {
+                nearestDistance[pos] = nearestDistance[pos - 1];
+                nearestLabel[pos] = nearestLabel[pos - 1];
+                pos--;
+            }
+            nearestDistance[pos] = distance;
+            nearestLabel[pos] = prototypes.getLabel(i);
+        }
+
+        for (int d = 0; d < votes.length; d++) {
+            votes[d] = 0;
+        }
+        int best = nearestLabel[0];
+        for (int i = 0; i < found; i++) {
+            int label = nearestLabel[i];
+            votes[label]++;
+            if (votes[label] > votes[best]) {
+                best = label;
+            }
+        }
+        return best;
+    }
+
+    static int distance(long[] a, long[] b) {
+        int distance = 0;
+        for (int w = 0; w < a.length; w++) {
+            distance += Long.bitCount(a[w] ^ b[w]);
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,22 @@
+package com.reactlibrary.ocr;
+
+/**
+ * Creates DigitClassifiers sharing one read-only prototype set
+ */
+public class DigitClassifierFactory implements DigitRecognizerFactory {
+
+    private final DigitPrototypes prototypes;
+
+    public DigitClassifierFactory(DigitPrototypes prototypes) {
+        this.prototypes = prototypes;
+    }
+
+    @Override
+    public DigitRecognizer create() {
+        return new DigitClassifier(prototypes);
+    }
+
+    @Override
+    public void release(DigitRecognizer recognizer) {
+    }
+}
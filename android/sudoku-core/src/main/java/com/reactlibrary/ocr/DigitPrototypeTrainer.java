@@ -0,0 +1,149 @@
+package com.reactlibrary.ocr;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Offline tool that builds the DigitClassifier prototype file from labelled
+ * digit crops. The crops directory holds one sub-directory per digit (1 to 9)
+ * with any images OpenCV can read; dark-on-light and light-on-dark crops are
+ * both accepted. Duplicate glyphs are dropped and each digit is reduced to
+ * the most spread out maxPerDigit glyphs
+ *
+ * usage: DigitPrototypeTrainer cropsDir outputFile [maxPerDigit]
+ */
+public class DigitPrototypeTrainer {
+
+    public static final int DEFAULT_MAX_PER_DIGIT = 40;
+
+    private final GlyphNormalizer normalizer = new GlyphNormalizer();
+    private final int maxPerDigit;
+
+    public DigitPrototypeTrainer(int maxPerDigit) {
+        this.maxPerDigit = maxPerDigit;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: DigitPrototypeTrainer cropsDir outputFile [maxPerDigit]");
+            System.exit(2);
+        }
+        System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+        int maxPerDigit = args.length > 2 ? Integer.parseInt(args[2])
+                : DEFAULT_MAX_PER_DIGIT;
+
+        DigitPrototypes prototypes = new DigitPrototypeTrainer(maxPerDigit)
+                .train(new File(args[0]));
+        prototypes.write(new FileOutputStream(args[1]));
+        System.out.println("wrote " + prototypes.size() + " prototypes to "
+                + args[1]);
+    }
+
+    /**
+     * builds prototypes from cropsDir/1 ... cropsDir/9
+     */
+    public DigitPrototypes train(File cropsDir) {
+        DigitPrototypes prototypes = new DigitPrototypes();
+        for (int digit = 1; digit <= 9; digit++) {
+            File[] files = new File(cropsDir, String.valueOf(digit)).listFiles();
+            if (files == null) {
+                continue;
+            }
+            Arrays.sort(files);
+            List<long[]> glyphs = new ArrayList<long[]>();
+            for (File file : files) {
+                long[] glyph = readGlyph(file);
+                if (glyph != null && !contains(glyphs, glyph)) {
+                    glyphs.add(glyph);
+                }
+            }
+            for (long[] glyph : spreadOut(glyphs, maxPerDigit)) {
+                prototypes.add(digit, glyph);
+            }
+            System.out.println(digit + ": " + glyphs.size() + " distinct crops");
+        }
+        return prototypes;
+    }
+
+    /**
+     * returns normalized glyph of the image file, or null if it is unreadable
+     * or empty
+     */
+    private long[] readGlyph(File file) {
+        Mat gray = Imgcodecs.imread(file.getPath(), Imgcodecs.IMREAD_GRAYSCALE);
+        if (gray.empty()) {
+            return null;
+        }
+        Mat binary = new Mat();
+        int type = Imgproc.THRESH_BINARY | Imgproc.THRESH_OTSU;
+        if (borderMean(gray) > 127) {
+            // dark digit on light paper; the pipeline works white on black
+            type = Imgproc.THRESH_BINARY_INV | Imgproc.THRESH_OTSU;
+        }
+        Imgproc.threshold(gray, binary, 0, 255, type);
+        long[] glyph = normalizer.normalize(binary);
+        gray.release();
+        binary.release();
+
+        for (long word : glyph) {
+            if (word != 0) {
+                return glyph;
+            }
+        }
+        return null;
+    }
+
+    private static double borderMean(Mat gray) {
+        double sum = Core.sumElems(gray.row(0)).val[0]
+                + Core.sumElems(gray.row(gray.rows() - 1)).val[0]
+                + Core.sumElems(gray.col(0)).val[0]
+                + Core.sumElems(gray.col(gray.cols() - 1)).val[0];
+        return sum / (2 * gray.rows() + 2 * gray.cols());
+    }
+
+    private static boolean contains(List<long[]> glyphs, long[] glyph) {
+        for (long[] g : glyphs) {
+            if (Arrays.equals(g, glyph)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * greedy farthest-point selection: starts with the first glyph and keeps
+     * adding the glyph farthest from everything chosen so far
+     */
+    private static List<long[]> spreadOut(List<long[]> glyphs, int max) {
+        if (glyphs.size() <= max) {
+            return glyphs;
+        }
+        List<long[]> chosen = new ArrayList<long[]>(max);
+        int[] nearest = new int[glyphs.size()];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        int next = 0;
+        while (chosen.size() < max) {
+            long[] pick = glyphs.get(next);
+            chosen.add(pick);
+            int farthest = -1;
+            for (int i = 0; i < glyphs.size(); i++) {
+                nearest[i] = Math.min(nearest[i],
+                        DigitClassifier.distance(glyphs.get(i), pick));
+                if (farthest < 0 || nearest[i] > nearest[farthest]) {
+                    farthest = i;
+                }
+            }
+            next = farthest;
+        }
+        return chosen;
+    }
+}
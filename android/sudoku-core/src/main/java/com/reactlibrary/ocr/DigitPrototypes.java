@@ -0,0 +1,105 @@
+package com.reactlibrary.ocr;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Labelled set of normalized digit glyphs used by DigitClassifier. Stored as
+ * a small big-endian binary file: magic, glyph side, count, then per
+ * prototype one label byte followed by the packed glyph bits
+ */
+public class DigitPrototypes {
+
+    public static final String ASSET_NAME = "digits.proto";
+    private static final int MAGIC = 0x53445031; // "SDP1"
+
+    private int[] labels;
+    private long[][] glyphs;
+    private int count;
+
+    public DigitPrototypes() {
+        labels = new int[64];
+        glyphs = new long[64][];
+    }
+
+    /**
+     * reads prototypes written by write(); the stream is closed
+     *
+     * @throws IOException
+     *             if the stream is not a prototype file for this glyph size
+     */
+    public static DigitPrototypes load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        try {
+            if (data.readInt() != MAGIC) {
+                throw new IOException("not a digit prototype file");
+            }
+            int side = data.readInt();
+            if (side != GlyphNormalizer.SIDE) {
+                throw new IOException("prototype glyph side " + side
+                        + ", expected " + GlyphNormalizer.SIDE);
+            }
+            int n = data.readInt();
+            DigitPrototypes prototypes = new DigitPrototypes();
+            for (int i = 0; i < n; i++) {
+                int label = data.readUnsignedByte();
+                long[] glyph = new long[GlyphNormalizer.WORDS];
+                for (int w = 0; w < glyph.length; w++) {
+                    glyph[w] = data.readLong();
+                }
+                prototypes.add(label, glyph);
+            }
+            return prototypes;
+        } finally {
+            data.close();
+        }
+    }
+
+    /**
+     * writes prototypes in the format read by load(); the stream is closed
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        try {
+            data.writeInt(MAGIC);
+            data.writeInt(GlyphNormalizer.SIDE);
+            data.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                data.writeByte(labels[i]);
+                for (long word : glyphs[i]) {
+                    data.writeLong(word);
+                }
+            }
+        } finally {
+            data.close();
+        }
+    }
+
+    public void add(int label, long[] glyph) {
+        if (count == labels.length) {
+            labels = Arrays.copyOf(labels, count * 2);
+            glyphs = Arrays.copyOf(glyphs, count * 2);
+        }
+        labels[count] = label;
+        glyphs[count] = glyph;
+        count++;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getLabel(int i) {
+        return labels[i];
+    }
+
+    public long[] getGlyph(int i) {
+        return glyphs[i];
+    }
+}
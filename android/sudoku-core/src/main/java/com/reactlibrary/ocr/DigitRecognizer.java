@@ -0,0 +1,17 @@
+package com.reactlibrary.ocr;
+
+import org.opencv.core.Mat;
+
+/**
+ * Recognizes the single digit in a cleaned sudoku cell. Implementations are
+ * not thread-safe; each thread needs its own instance
+ */
+public interface DigitRecognizer {
+
+    /**
+     * @param digit
+     *            CV_8UC1 image of the digit, white on black
+     * @return recognized digit 1-9
+     */
+    int recognize(Mat digit);
+}
@@ -0,0 +1,12 @@
+package com.reactlibrary.ocr;
+
+/**
+ * Hands out DigitRecognizers for recognition workers. Every recognizer from
+ * create() is used by a single thread and given back through release()
+ */
+public interface DigitRecognizerFactory {
+
+    DigitRecognizer create();
+
+    void release(DigitRecognizer recognizer);
+}
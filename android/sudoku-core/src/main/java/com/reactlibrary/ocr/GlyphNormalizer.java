@@ -0,0 +1,98 @@
+package com.reactlibrary.ocr;
+
+import org.opencv.core.Mat;
+
+import com.reactlibrary.PixelView;
+
+/**
+ * Normalizes a digit glyph to a SIDE x SIDE binary image packed into longs:
+ * the glyph's bounding box is scaled (keeping its aspect ratio) to fill the
+ * square, centred, and each target pixel is set when at least half of the
+ * source area it covers is foreground
+ */
+public class GlyphNormalizer {
+
+    public static final int SIDE = 16;
+    public static final int WORDS = SIDE * SIDE / 64;
+
+    private final PixelView pixels = new PixelView();
+
+    /**
+     * @param glyph
+     *            CV_8UC1 digit image, non-zero == foreground
+     * @return packed bits (row-major, bit i of word i / 64), all zero when
+     *         glyph is empty
+     */
+    public long[] normalize(Mat glyph) {
+        pixels.load(glyph);
+        return normalize(pixels.getData(), pixels.getWidth(),
+                pixels.getHeight());
+    }
+
+    /**
+     * same as normalize(Mat) over a row-major 8 bit buffer
+     */
+    public long[] normalize(byte[] img, int width, int height) {
+        long[] bits = new long[WORDS];
+
+        int xMin = width;
+        int xMax = -1;
+        int yMin = height;
+        int yMax = -1;
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            for (int x = 0; x < width; x++) {
+                if (img[row + x] != 0) {
+                    if (x < xMin) {
+                        xMin = x;
+                    }
+                    if (x > xMax) {
+                        xMax = x;
+                    }
+                    if (y < yMin) {
+                        yMin = y;
+                    }
+                    if (y > yMax) {
+                        yMax = y;
+                    }
+                }
+            }
+        }
+        if (xMax < 0) {
+            return bits;
+        }
+
+        int boxWidth = xMax - xMin + 1;
+        int boxHeight = yMax - yMin + 1;
+        // source pixels per target pixel, same on both axes
+        double scale = Math.max(boxWidth, boxHeight) / (double) SIDE;
+        // centre the box inside the square
+        double originX = xMin + boxWidth / 2.0 - SIDE * scale / 2.0;
+        double originY = yMin + boxHeight / 2.0 - SIDE * scale / 2.0;
+
+        for (int ty = 0; ty < SIDE; ty++) {
+            int sy0 = (int) Math.floor(originY + ty * scale);
+            int sy1 = Math.max(sy0 + 1, (int) Math.ceil(originY + (ty + 1) * scale));
+            for (int tx = 0; tx < SIDE; tx++) {
+                int sx0 = (int) Math.floor(originX + tx * scale);
+                int sx1 = Math.max(sx0 + 1, (int) Math.ceil(originX + (tx + 1) * scale));
+                int on = 0;
+                int total = 0;
+                for (int sy = sy0; sy < sy1; sy++) {
+                    for (int sx = sx0; sx < sx1; sx++) {
+                        total++;
+                        if (sy >= yMin && sy <= yMax && sx >= xMin && sx <= xMax
+                                && img[sy * width + sx] != 0) {
+                            on++;
+                        }
+                    }
+                }
+                if (2 * on >= total) {
+                    int bit = ty * SIDE + tx;
+                    bits[bit >> 6] |= 1L << (bit & 63);
+                }
+            }
+        }
+        return bits;
+    }
+}
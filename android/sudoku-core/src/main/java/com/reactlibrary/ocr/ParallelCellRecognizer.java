@@ -0,0 +1,182 @@
+package com.reactlibrary.ocr;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.opencv.core.Mat;
+
+import com.reactlibrary.CancellationToken;
+import com.reactlibrary.solver.CellCandidates;
+
+/**
+ * Recognizes the digit cells of a grid on all cores. Each worker takes a
+ * recognizer from the factory, keeps it confined to its own thread while it
+ * pulls cells off a shared counter, and writes every result into the grid
+ * slot of that cell, so the grid is the same whatever order workers run in.
+ * The calling thread works too; the shared pool holds one thread less than
+ * the number of cores
+ */
+public class ParallelCellRecognizer {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+    private static ExecutorService sharedPool;
+
+    private final DigitRecognizerFactory mRecognizers;
+    private final int mWorkers;
+
+    public ParallelCellRecognizer(DigitRecognizerFactory recognizers) {
+        this(recognizers, CORES);
+    }
+
+    /**
+     * @param workers
+     *            most threads (including the caller) working on one grid
+     */
+    public ParallelCellRecognizer(DigitRecognizerFactory recognizers, int workers) {
+        mRecognizers = recognizers;
+        mWorkers = Math.max(1, Math.min(workers, CORES));
+    }
+
+    /**
+     * @param tileContainNum
+     *            grid array indicating which tiles contains numbers
+     * @param nums
+     *            Mats of the numbers in row-major tile order; drained
+     * @param token
+     *            checked by every worker before each cell
+     * @return grid array representing sudoku puzzle (empty == 0)
+     */
+    public int[][] recognize(boolean[][] tileContainNum, Queue<Mat> nums,
+                             CancellationToken token) {
+        int[][] grid = new int[9][9];
+        run(tileContainNum, nums, grid, null, token);
+        return grid;
+    }
+
+    /**
+     * same as recognize(), keeping up to candidates.getMaxCandidates()
+     * ranked digits per cell from CandidateRecognizers (the single
+     * recognized digit from other recognizers)
+     *
+     * @param candidates
+     *            cleared, then filled with the digit cells
+     */
+    public void recognizeCandidates(boolean[][] tileContainNum, Queue<Mat> nums,
+                                    CellCandidates candidates, CancellationToken token) {
+        candidates.clear();
+        run(tileContainNum, nums, null, candidates, token);
+    }
+
+    /**
+     * recognizes the cells into grid, or into candidates if grid is null
+     */
+    private void run(boolean[][] tileContainNum, Queue<Mat> nums, final int[][] grid,
+                     final CellCandidates candidates, final CancellationToken token) {
+        final List<Mat> cells = new ArrayList<Mat>(nums.size());
+        final List<Integer> slots = new ArrayList<Integer>(nums.size());
+        for (int i = 0; i < 9; i++) {
+            for (int j = 0; j < 9; j++) {
+                if (tileContainNum[i][j]) {
+                    cells.add(nums.remove());
+                    slots.add(i * 9 + j);
+                }
+            }
+        }
+
+        if (cells.isEmpty()) {
+            return;
+        }
+
+        final AtomicInteger next = new AtomicInteger();
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                DigitRecognizer recognizer = mRecognizers.create();
+                int maxCandidates = candidates == null ? 0 : candidates.getMaxCandidates();
+                int[] digits = new int[maxCandidates];
+                float[] confidences = new float[maxCandidates];
+                try {
+                    int k;
+                    while ((k = next.getAndIncrement()) < cells.size()) {
+                        token.throwIfCancelled();
+                        int slot = slots.get(k);
+                        if (grid != null) {
+                            grid[slot / 9][slot % 9] = recognizer.recognize(cells.get(k));
+                        } else if (recognizer instanceof CandidateRecognizer) {
+                            int count = ((CandidateRecognizer) recognizer)
+                                    .recognizeCandidates(cells.get(k), digits, confidences);
+                            candidates.set(slot, digits, confidences, count);
+                        } else {
+                            candidates.setDigit(slot, recognizer.recognize(cells.get(k)));
+                        }
+                    }
+                } finally {
+                    mRecognizers.release(recognizer);
+                }
+            }
+        };
+
+        int helpers = Math.min(mWorkers, cells.size()) - 1;
+        List<Future<?>> futures = new ArrayList<Future<?>>(Math.max(helpers, 0));
+        for (int h = 0; h < helpers; h++) {
+            futures.add(pool().submit(worker));
+        }
+        RuntimeException failure = null;
+        try {
+            worker.run();
+        } catch (RuntimeException e) {
+            failure = e;
+            // let helpers stop at their next cell
+            next.set(cells.size());
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException
+                            ? (RuntimeException) e.getCause()
+                            : new RuntimeException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new IllegalStateException("interrupted during recognition");
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static synchronized ExecutorService pool() {
+        if (sharedPool == null) {
+            int threads = Math.max(1, CORES - 1);
+            final AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                    30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                    new ThreadFactory() {
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "digit-recognizer-"
+                                    + count.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            sharedPool = executor;
+        }
+        return sharedPool;
+    }
+}
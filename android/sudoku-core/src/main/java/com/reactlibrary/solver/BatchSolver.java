@@ -0,0 +1,352 @@
+package com.reactlibrary.solver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import com.reactlibrary.stats.Histogram;
+
+/**
+ * Solves files of 9x9 puzzles, one per line as 81 characters with '0' or '.'
+ * for empty cells; anything after the first ',' or whitespace is ignored, so
+ * "puzzle,solution" CSV files work too. Blank lines and lines starting with
+ * '#' are skipped. The file is read in chunks: while one chunk is split
+ * across a work-stealing ForkJoinPool the next one is read, and results are
+ * written in input order, one line per puzzle: the 81-digit solution, or
+ * "multiple", "unsolvable" or "invalid". Every worker thread keeps its own
+ * BitmaskSolver, so solving does not allocate
+ */
+public class BatchSolver {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    // puzzles a task solves itself instead of forking
+    private static final int LEAF_SIZE = 64;
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+
+    public enum Status {
+        SOLVED, MULTIPLE, UNSOLVABLE, INVALID
+    }
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final boolean checkUnique;
+    // every worker ever handed out, so run() can collect their counts
+    private final List<Worker> allWorkers = new ArrayList<Worker>();
+    private final ThreadLocal<Worker> workers = new ThreadLocal<Worker>() {
+        @Override
+        protected Worker initialValue() {
+            Worker worker = new Worker();
+            synchronized (allWorkers) {
+                allWorkers.add(worker);
+            }
+            return worker;
+        }
+    };
+
+    /**
+     * @param pool
+     *            pool the puzzles are solved on
+     * @param chunkSize
+     *            puzzles read ahead while the previous chunk is solved
+     * @param checkUnique
+     *            tell puzzles with several solutions apart, which costs a
+     *            second search; if false the first solution found is written
+     */
+    public BatchSolver(ForkJoinPool pool, int chunkSize, boolean checkUnique) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.checkUnique = checkUnique;
+    }
+
+    /**
+     * solves every puzzle of in and writes the results to out in the same
+     * order
+     */
+    public Report run(BufferedReader in, Writer out) throws IOException {
+        long start = System.nanoTime();
+        Chunk current = read(in);
+        ForkJoinTask<Void> task = submit(current);
+        while (current != null) {
+            Chunk next = read(in);
+            task.join();
+            ForkJoinTask<Void> nextTask = submit(next);
+            write(current, out);
+            current = next;
+            task = nextTask;
+        }
+        out.flush();
+
+        // workers count into their own histograms so threads never contend;
+        // every task has been joined, so their counts are visible here
+        Report report = new Report();
+        report.elapsedNanos = System.nanoTime() - start;
+        synchronized (allWorkers) {
+            for (Worker worker : allWorkers) {
+                report.latency.add(worker.latency);
+                worker.latency.reset();
+                for (int i = 0; i < report.statuses.length; i++) {
+                    report.statuses[i] += worker.statuses[i];
+                    worker.statuses[i] = 0;
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * solves a single puzzle line on the calling thread
+     *
+     * @param result
+     *            receives the 81-digit solution if the puzzle is solved
+     */
+    public Status solve(String line, StringBuilder result) {
+        return workers.get().solve(line, checkUnique, result);
+    }
+
+    private Chunk read(BufferedReader in) throws IOException {
+        Chunk chunk = new Chunk(chunkSize);
+        String line;
+        while (chunk.size < chunkSize && (line = in.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#' || line.trim().isEmpty()) {
+                continue;
+            }
+            chunk.puzzles[chunk.size++] = line;
+        }
+        return chunk.size == 0 ? null : chunk;
+    }
+
+    private ForkJoinTask<Void> submit(Chunk chunk) {
+        return chunk == null ? null : pool.submit(new SolveTask(chunk, 0, chunk.size));
+    }
+
+    private static void write(Chunk chunk, Writer out) throws IOException {
+        for (int i = 0; i < chunk.size; i++) {
+            out.write(chunk.results[i]);
+            out.write('\n');
+        }
+    }
+
+    private static class Chunk {
+        final String[] puzzles;
+        final String[] results;
+        int size;
+
+        Chunk(int capacity) {
+            puzzles = new String[capacity];
+            results = new String[capacity];
+        }
+    }
+
+    private class SolveTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+
+        SolveTask(Chunk chunk, int from, int to) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SolveTask(chunk, from, middle),
+                        new SolveTask(chunk, middle, to));
+                return;
+            }
+            Worker worker = workers.get();
+            StringBuilder result = worker.result;
+            for (int i = from; i < to; i++) {
+                long start = System.nanoTime();
+                Status status = worker.solve(chunk.puzzles[i], checkUnique, result);
+                worker.latency.record(System.nanoTime() - start);
+                worker.statuses[status.ordinal()]++;
+                chunk.results[i] = status == Status.SOLVED ? result.toString()
+                        : status.name().toLowerCase(Locale.US);
+            }
+        }
+    }
+
+    /**
+     * per-thread solver, scratch board and counts
+     */
+    private static class Worker {
+        final BitmaskSolver solver = new BitmaskSolver();
+        final int[] board = new int[BitmaskSolver.CELLS];
+        final StringBuilder result = new StringBuilder(BitmaskSolver.CELLS);
+        final Histogram latency = new Histogram();
+        final long[] statuses = new long[Status.values().length];
+
+        Status solve(String line, boolean checkUnique, StringBuilder result) {
+            result.setLength(0);
+            if (!parse(line)) {
+                return Status.INVALID;
+            }
+            try {
+                if (checkUnique) {
+                    int solutions = solver.countSolutions(board, 2);
+                    if (solutions != 1) {
+                        return solutions == 0 ? Status.UNSOLVABLE : Status.MULTIPLE;
+                    }
+                    solver.getSolution(board);
+                } else if (!solver.solve(board)) {
+                    return Status.UNSOLVABLE;
+                }
+            } catch (IllegalArgumentException e) {
+                // conflicting givens
+                return Status.INVALID;
+            }
+            for (int digit : board) {
+                result.append((char) ('0' + digit));
+            }
+            return Status.SOLVED;
+        }
+
+        private boolean parse(String line) {
+            int end = 0;
+            while (end < line.length() && line.charAt(end) != ','
+                    && !Character.isWhitespace(line.charAt(end))) {
+                end++;
+            }
+            if (end != BitmaskSolver.CELLS) {
+                return false;
+            }
+            for (int i = 0; i < end; i++) {
+                char c = line.charAt(i);
+                if (c == '.' || c == '0') {
+                    board[i] = 0;
+                } else if (c >= '1' && c <= '9') {
+                    board[i] = c - '0';
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * counts and timings of one run()
+     */
+    public static class Report {
+        private final long[] statuses = new long[Status.values().length];
+        private final Histogram latency = new Histogram();
+        private long elapsedNanos;
+
+        public long getCount(Status status) {
+            return statuses[status.ordinal()];
+        }
+
+        public long getTotal() {
+            return latency.getCount();
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getPuzzlesPerSecond() {
+            return elapsedNanos == 0 ? 0 : getTotal() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * returns solve time per puzzle in nanoseconds
+         */
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d puzzles in %.2f s (%.0f/s): solved %d, multiple %d, unsolvable %d, invalid %d%n"
+                            + "latency us: mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f",
+                    getTotal(), elapsedNanos / 1e9, getPuzzlesPerSecond(),
+                    getCount(Status.SOLVED), getCount(Status.MULTIPLE),
+                    getCount(Status.UNSOLVABLE), getCount(Status.INVALID),
+                    latency.getMean() / 1e3, latency.getPercentile(50) / 1e3,
+                    latency.getPercentile(90) / 1e3, latency.getPercentile(99) / 1e3,
+                    latency.getPercentile(99.9) / 1e3, latency.getMax() / 1e3);
+        }
+    }
+
+    private static final String USAGE = "usage: BatchSolver [--threads=N] [--first] "
+            + "<puzzles|-> [solutions|-]\n"
+            + "  --threads=N  worker threads, default one per core\n"
+            + "  --first      write the first solution without checking uniqueness";
+
+    /**
+     * command line entry point; the report goes to stderr
+     */
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean checkUnique = true;
+        String input = null;
+        String output = "-";
+        int files = 0;
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                try {
+                    threads = Integer.parseInt(arg.substring("--threads=".length()));
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads < 1) {
+                    usage("Invalid thread count: " + arg);
+                }
+            } else if (arg.equals("--first")) {
+                checkUnique = false;
+            } else if (arg.startsWith("--") || files == 2) {
+                usage("Unexpected argument: " + arg);
+            } else if (files++ == 0) {
+                input = arg;
+            } else {
+                output = arg;
+            }
+        }
+        if (input == null) {
+            usage(null);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        InputStream in = input.equals("-") ? System.in : new FileInputStream(input);
+        OutputStream out = output.equals("-") ? System.out : new FileOutputStream(output);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, ASCII), 1 << 16);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, ASCII), 1 << 16);
+            Report report = new BatchSolver(pool, DEFAULT_CHUNK_SIZE, checkUnique)
+                    .run(reader, writer);
+            System.err.println(report);
+        } finally {
+            pool.shutdown();
+            in.close();
+            out.close();
+        }
+    }
+
+    private static void usage(String error) {
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
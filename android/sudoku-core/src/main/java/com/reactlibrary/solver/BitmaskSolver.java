@@ -0,0 +1,283 @@
+package com.reactlibrary.solver;
+
+/**
+ * 9x9 sudoku solver working on a flat int[81] board (row-major, 0 == empty).
+ * Digits used by every row, column and box are kept as bitmasks, so the
+ * candidates of a cell are three ORs instead of a rescan of its units. Naked
+ * singles (cells with one candidate) and hidden singles (digits with one
+ * place left in a unit) are filled in until nothing changes; only then does
+ * the solver guess, on the cell with the fewest candidates. Search states
+ * live in one preallocated array, a slice per depth, so solving does not
+ * allocate
+ */
+public class BitmaskSolver {
+
+    public static final int SIZE = 9;
+    public static final int CELLS = SIZE * SIZE;
+    // bit d - 1 stands for digit d
+    static final int ALL = (1 << SIZE) - 1;
+
+    static final int[] ROW = new int[CELLS];
+    static final int[] COL = new int[CELLS];
+    static final int[] BOX = new int[CELLS];
+    // cells of the 9 rows, 9 columns and 9 boxes
+    static final int[][] UNITS = new int[3 * SIZE][SIZE];
+
+    static {
+        for (int i = 0; i < CELLS; i++) {
+            int row = i / SIZE;
+            int col = i % SIZE;
+            int box = (row / 3) * 3 + col / 3;
+            ROW[i] = row;
+            COL[i] = col;
+            BOX[i] = box;
+            UNITS[row][col] = i;
+            UNITS[SIZE + col][row] = i;
+            UNITS[2 * SIZE + box][(row % 3) * 3 + col % 3] = i;
+        }
+    }
+
+    // state slice: cell values, then row, column and box masks
+    private static final int ROWS = CELLS;
+    private static final int COLS = ROWS + SIZE;
+    private static final int BOXES = COLS + SIZE;
+    private static final int STATE = BOXES + SIZE;
+    // propagate() results besides a cell index
+    private static final int SOLVED = -1;
+    private static final int CONTRADICTION = -2;
+
+    private final int[] stack = new int[(CELLS + 1) * STATE];
+    private int[] solution;
+    private int solutions;
+    private int limit;
+    private long guesses;
+
+    /**
+     * solves board in place
+     *
+     * @param board
+     *            81 cells, row-major, 0 for empty
+     * @return true if solved, false if the puzzle has no solution (board is
+     *         left unchanged)
+     * @throws IllegalArgumentException
+     *             if board is not 81 digits 0-9 or its givens conflict
+     */
+    public boolean solve(int[] board) {
+        if (run(board, 1) == 0) {
+            return false;
+        }
+        System.arraycopy(solution, 0, board, 0, CELLS);
+        return true;
+    }
+
+    /**
+     * counts solutions of board, stopping at limit; 2 is enough to tell a
+     * unique puzzle from an ambiguous one
+     *
+     * @return number of solutions found, at most limit
+     */
+    public int countSolutions(int[] board, int limit) {
+        return run(board, limit);
+    }
+
+    /**
+     * copies the first solution found by the last solve or count into board
+     *
+     * @return false if that search found none
+     */
+    public boolean getSolution(int[] board) {
+        if (solutions == 0) {
+            return false;
+        }
+        System.arraycopy(solution, 0, board, 0, CELLS);
+        return true;
+    }
+
+    /**
+     * returns branches tried by the last solve or count
+     */
+    public long getGuesses() {
+        return guesses;
+    }
+
+    private int run(int[] board, int limit) {
+        this.limit = limit;
+        solutions = 0;
+        guesses = 0;
+        if (solution == null) {
+            solution = new int[CELLS];
+        }
+        load(board);
+        if (limit > 0) {
+            search(0);
+        }
+        return solutions;
+    }
+
+    /**
+     * fills the first state slice from board
+     */
+    private void load(int[] board) {
+        if (board == null || board.length != CELLS) {
+            throw new IllegalArgumentException("Board must have " + CELLS + " cells");
+        }
+        int[] s = stack;
+        for (int i = ROWS; i < STATE; i++) {
+            s[i] = 0;
+        }
+        for (int i = 0; i < CELLS; i++) {
+            int digit = board[i];
+            if (digit < 0 || digit > SIZE) {
+                throw new IllegalArgumentException("Invalid digit " + digit
+                        + " at cell " + i);
+            }
+            s[i] = 0;
+            if (digit == 0) {
+                continue;
+            }
+            int bit = 1 << (digit - 1);
+            if (((s[ROWS + ROW[i]] | s[COLS + COL[i]] | s[BOXES + BOX[i]]) & bit) != 0) {
+                throw new IllegalArgumentException("Digit " + digit + " at cell "
+                        + i + " conflicts with another given");
+            }
+            place(0, i, digit);
+        }
+    }
+
+    /**
+     * returns true once enough solutions were found
+     */
+    private boolean search(int base) {
+        int cell = propagate(base);
+        if (cell == CONTRADICTION) {
+            return false;
+        }
+        if (cell == SOLVED) {
+            if (solutions == 0) {
+                System.arraycopy(stack, base, solution, 0, CELLS);
+            }
+            solutions++;
+            return solutions >= limit;
+        }
+
+        int next = base + STATE;
+        int candidates = candidates(base, cell);
+        while (candidates != 0) {
+            int bit = candidates & -candidates;
+            candidates ^= bit;
+            System.arraycopy(stack, base, stack, next, STATE);
+            place(next, cell, Integer.numberOfTrailingZeros(bit) + 1);
+            guesses++;
+            if (search(next)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * fills in naked and hidden singles until none are left
+     *
+     * @return empty cell with the fewest candidates, SOLVED or CONTRADICTION
+     */
+    private int propagate(int base) {
+        int[] s = stack;
+        while (true) {
+            boolean changed = false;
+            int best = SOLVED;
+            int bestCount = SIZE + 1;
+            for (int i = 0; i < CELLS; i++) {
+                if (s[base + i] != 0) {
+                    continue;
+                }
+                int candidates = candidates(base, i);
+                if (candidates == 0) {
+                    return CONTRADICTION;
+                }
+                int count = Integer.bitCount(candidates);
+                if (count == 1) {
+                    place(base, i, Integer.numberOfTrailingZeros(candidates) + 1);
+                    changed = true;
+                } else if (count < bestCount) {
+                    bestCount = count;
+                    best = i;
+                }
+            }
+            if (changed) {
+                continue;
+            }
+
+            for (int[] unit : UNITS) {
+                int once = 0;
+                int twice = 0;
+                int used = 0;
+                for (int cell : unit) {
+                    int digit = s[base + cell];
+                    if (digit != 0) {
+                        used |= 1 << (digit - 1);
+                        continue;
+                    }
+                    int candidates = candidates(base, cell);
+                    twice |= once & candidates;
+                    once |= candidates;
+                }
+                if ((once | used) != ALL) {
+                    // some digit has no place left in this unit
+                    return CONTRADICTION;
+                }
+                int hidden = once & ~twice;
+                while (hidden != 0) {
+                    int bit = hidden & -hidden;
+                    hidden ^= bit;
+                    for (int cell : unit) {
+                        if (s[base + cell] == 0 && (candidates(base, cell) & bit) != 0) {
+                            place(base, cell, Integer.numberOfTrailingZeros(bit) + 1);
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (!changed) {
+                return best;
+            }
+        }
+    }
+
+    private int candidates(int base, int cell) {
+        int[] s = stack;
+        return ~(s[base + ROWS + ROW[cell]] | s[base + COLS + COL[cell]]
+                | s[base + BOXES + BOX[cell]]) & ALL;
+    }
+
+    private void place(int base, int cell, int digit) {
+        int[] s = stack;
+        int bit = 1 << (digit - 1);
+        s[base + cell] = digit;
+        s[base + ROWS + ROW[cell]] |= bit;
+        s[base + COLS + COL[cell]] |= bit;
+        s[base + BOXES + BOX[cell]] |= bit;
+    }
+
+    /**
+     * returns row-major flat copy of a 9x9 grid
+     */
+    public static int[] toBoard(int[][] grid) {
+        int[] board = new int[CELLS];
+        for (int row = 0; row < SIZE; row++) {
+            System.arraycopy(grid[row], 0, board, row * SIZE, SIZE);
+        }
+        return board;
+    }
+
+    /**
+     * returns 9x9 grid of a flat board
+     */
+    public static int[][] toGrid(int[] board) {
+        int[][] grid = new int[SIZE][SIZE];
+        for (int row = 0; row < SIZE; row++) {
+            System.arraycopy(board, row * SIZE, grid[row], 0, SIZE);
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,99 @@
+package com.reactlibrary.solver;
+
+/**
+ * Up to maxCandidates recognized digits per cell of a 9x9 grid, best first,
+ * each with a confidence in (0, 1]. Cells without candidates are empty.
+ * Storage is flat arrays, so recognizer threads can each fill their own
+ * cells without locking
+ */
+public class CellCandidates {
+
+    private final int maxCandidates;
+    private final int[] counts = new int[BitmaskSolver.CELLS];
+    private final int[] digits;
+    private final float[] confidences;
+
+    /**
+     * @param maxCandidates
+     *            candidates kept per cell
+     */
+    public CellCandidates(int maxCandidates) {
+        if (maxCandidates < 1) {
+            throw new IllegalArgumentException("Need at least one candidate per cell");
+        }
+        this.maxCandidates = maxCandidates;
+        digits = new int[BitmaskSolver.CELLS * maxCandidates];
+        confidences = new float[BitmaskSolver.CELLS * maxCandidates];
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    /**
+     * stores the candidates of cell, which must be sorted best first; ones
+     * past getMaxCandidates() are dropped
+     *
+     * @param digits
+     *            digits 1-9
+     * @param confidences
+     *            confidence of each digit
+     * @param count
+     *            number of entries of digits and confidences to use
+     */
+    public void set(int cell, int[] digits, float[] confidences, int count) {
+        int n = Math.min(count, maxCandidates);
+        int base = cell * maxCandidates;
+        for (int i = 0; i < n; i++) {
+            if (digits[i] < 1 || digits[i] > BitmaskSolver.SIZE) {
+                throw new IllegalArgumentException("Invalid digit " + digits[i]
+                        + " for cell " + cell);
+            }
+            this.digits[base + i] = digits[i];
+            this.confidences[base + i] = confidences[i];
+        }
+        counts[cell] = n;
+    }
+
+    /**
+     * stores a single certain digit, or marks cell empty if digit is 0
+     */
+    public void setDigit(int cell, int digit) {
+        if (digit == 0) {
+            counts[cell] = 0;
+            return;
+        }
+        digits[cell * maxCandidates] = digit;
+        confidences[cell * maxCandidates] = 1f;
+        counts[cell] = 1;
+    }
+
+    public int getCount(int cell) {
+        return counts[cell];
+    }
+
+    public int getDigit(int cell, int rank) {
+        return digits[cell * maxCandidates + rank];
+    }
+
+    public float getConfidence(int cell, int rank) {
+        return confidences[cell * maxCandidates + rank];
+    }
+
+    /**
+     * returns row-major board of the best candidate of every cell
+     */
+    public int[] toBoard() {
+        int[] board = new int[BitmaskSolver.CELLS];
+        for (int cell = 0; cell < board.length; cell++) {
+            board[cell] = counts[cell] == 0 ? 0 : digits[cell * maxCandidates];
+        }
+        return board;
+    }
+
+    public void clear() {
+        for (int cell = 0; cell < counts.length; cell++) {
+            counts[cell] = 0;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.reactlibrary.solver;
+
+/**
+ * Picks the most likely reading of a recognized grid that is a valid sudoku.
+ * Every non-empty cell takes one of its candidates, costing -log(confidence);
+ * the decoder searches for the cheapest assignment in which no row, column
+ * or box repeats a digit (and, optionally, that BitmaskSolver can solve).
+ * Branch and bound: cells are placed most confident first, each trying its
+ * candidates best first, and a branch is cut once its cost plus the best
+ * cost of every remaining cell cannot beat the assignment found so far. A
+ * clean read is the first leaf, so it costs one pass; a few misreads cost a
+ * few hundred nodes. The search stops after maxNodes placements and keeps
+ * the best assignment found by then
+ */
+public class ConstraintDecoder {
+
+    public static final int DEFAULT_MAX_NODES = 20000;
+    // confidences are clamped to this before taking the log
+    private static final double MIN_CONFIDENCE = 1e-4;
+
+    private final int maxNodes;
+    private final boolean requireSolvable;
+    private final BitmaskSolver solver = new BitmaskSolver();
+
+    // non-empty cells in search order and their candidate costs
+    private final int[] order = new int[BitmaskSolver.CELLS];
+    private final double[] suffixCost = new double[BitmaskSolver.CELLS + 1];
+    private double[] costs = new double[0];
+    private int cellCount;
+
+    private final int[] board = new int[BitmaskSolver.CELLS];
+    private final int[] best = new int[BitmaskSolver.CELLS];
+    private final int[] rows = new int[BitmaskSolver.SIZE];
+    private final int[] cols = new int[BitmaskSolver.SIZE];
+    private final int[] boxes = new int[BitmaskSolver.SIZE];
+    private CellCandidates candidates;
+    private double bestCost;
+    private int nodes;
+    private boolean exhausted;
+
+    public ConstraintDecoder() {
+        this(DEFAULT_MAX_NODES, true);
+    }
+
+    /**
+     * @param maxNodes
+     *            placements tried before the search gives up
+     * @param requireSolvable
+     *            also reject assignments that have no solution
+     */
+    public ConstraintDecoder(int maxNodes, boolean requireSolvable) {
+        this.maxNodes = maxNodes;
+        this.requireSolvable = requireSolvable;
+    }
+
+    /**
+     * fills board with the cheapest valid assignment of candidates
+     *
+     * @param board
+     *            81 cells, row-major, 0 for empty
+     * @return false if no valid assignment was found within the budget;
+     *         board then holds the best candidate of every cell
+     */
+    public boolean decode(CellCandidates candidates, int[] board) {
+        this.candidates = candidates;
+        prepare();
+        nodes = 0;
+        exhausted = false;
+        bestCost = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < BitmaskSolver.SIZE; i++) {
+            rows[i] = 0;
+            cols[i] = 0;
+            boxes[i] = 0;
+        }
+        for (int cell = 0; cell < BitmaskSolver.CELLS; cell++) {
+            this.board[cell] = 0;
+        }
+
+        search(0, 0);
+        this.candidates = null;
+        if (bestCost == Double.POSITIVE_INFINITY) {
+            System.arraycopy(candidates.toBoard(), 0, board, 0, BitmaskSolver.CELLS);
+            return false;
+        }
+        System.arraycopy(best, 0, board, 0, BitmaskSolver.CELLS);
+        return true;
+    }
+
+    /**
+     * returns placements tried by the last decode
+     */
+    public int getNodes() {
+        return nodes;
+    }
+
+    /**
+     * returns true if the last decode ran out of nodes, so its result may not
+     * be the most likely one
+     */
+    public boolean wasExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * returns -log likelihood of the last decoded assignment
+     */
+    public double getCost() {
+        return bestCost;
+    }
+
+    /**
+     * sorts the non-empty cells most confident first and computes their costs
+     */
+    private void prepare() {
+        int k = candidates.getMaxCandidates();
+        if (costs.length != BitmaskSolver.CELLS * k) {
+            costs = new double[BitmaskSolver.CELLS * k];
+        }
+        cellCount = 0;
+        for (int cell = 0; cell < BitmaskSolver.CELLS; cell++) {
+            int count = candidates.getCount(cell);
+            if (count == 0) {
+                continue;
+            }
+            for (int rank = 0; rank < count; rank++) {
+                costs[cell * k + rank] = -Math.log(Math.max(MIN_CONFIDENCE,
+                        candidates.getConfidence(cell, rank)));
+            }
+            // insertion sort by cost of the best candidate
+            int pos = cellCount++;
+            double cost = costs[cell * k];
+            while (pos > 0 && costs[order[pos - 1] * k] > cost) {
+                order[pos] = order[pos - 1];
+                pos--;
+            }
+            order[pos] = cell;
+        }
+        suffixCost[cellCount] = 0;
+        for (int i = cellCount - 1; i >= 0; i--) {
+            suffixCost[i] = suffixCost[i + 1] + costs[order[i] * k];
+        }
+    }
+
+    private void search(int depth, double cost) {
+        if (cost + suffixCost[depth] >= bestCost) {
+            return;
+        }
+        if (depth == cellCount) {
+            if (requireSolvable && solver.countSolutions(board, 1) == 0) {
+                return;
+            }
+            bestCost = cost;
+            System.arraycopy(board, 0, best, 0, BitmaskSolver.CELLS);
+            return;
+        }
+
+        int k = candidates.getMaxCandidates();
+        int cell = order[depth];
+        int row = BitmaskSolver.ROW[cell];
+        int col = BitmaskSolver.COL[cell];
+        int box = BitmaskSolver.BOX[cell];
+        int used = rows[row] | cols[col] | boxes[box];
+        for (int rank = 0; rank < candidates.getCount(cell); rank++) {
+            if (nodes >= maxNodes) {
+                exhausted = true;
+                return;
+            }
+            int bit = 1 << (candidates.getDigit(cell, rank) - 1);
+            if ((used & bit) != 0) {
+                continue;
+            }
+            nodes++;
+            rows[row] |= bit;
+            cols[col] |= bit;
+            boxes[box] |= bit;
+            board[cell] = candidates.getDigit(cell, rank);
+            search(depth + 1, cost + costs[cell * k + rank]);
+            board[cell] = 0;
+            rows[row] &= ~bit;
+            cols[col] &= ~bit;
+            boxes[box] &= ~bit;
+        }
+    }
+}
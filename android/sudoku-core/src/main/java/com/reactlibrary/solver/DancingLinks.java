@@ -0,0 +1,306 @@
+package com.reactlibrary.solver;
+
+/**
+ * Exact-cover sudoku solver for N x N grids with square boxes (N = 4, 9, 16,
+ * 25), Knuth's Algorithm X with dancing links. Every candidate (cell, digit)
+ * is a row of four nodes covering the cell, row-digit, column-digit and
+ * box-digit constraints. The links live in int arrays allocated once per
+ * instance; givens are selected by covering their columns, and every search
+ * uncovers what it covered, so the same instance solves puzzle after puzzle
+ * without allocating
+ */
+public class DancingLinks {
+
+    public static final int MAX_BOX_SIZE = 5;
+
+    /**
+     * receives every solution found by enumerate()
+     */
+    public interface SolutionListener {
+        /**
+         * @param board
+         *            solved board, reused for the next solution
+         * @return false to stop the enumeration
+         */
+        boolean onSolution(int[] board);
+    }
+
+    private final int n;
+    private final int cells;
+    private final int columns;
+
+    // node 0 is the root, 1..columns the column headers, then 4 nodes per
+    // candidate row
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] size;
+
+    private final int[] chosen;
+    private final int[] givenRows;
+    private final int[] board;
+    private int givenCount;
+
+    private SolutionListener listener;
+    private int solutions;
+    private int limit;
+    private long guesses;
+
+    /**
+     * @param boxSize
+     *            side of a box, 2 to 5; the grid is boxSize^2 cells wide
+     */
+    public DancingLinks(int boxSize) {
+        if (boxSize < 2 || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Box size must be 2 to "
+                    + MAX_BOX_SIZE + ": " + boxSize);
+        }
+        n = boxSize * boxSize;
+        cells = n * n;
+        columns = 4 * cells;
+        int nodes = 1 + columns + 4 * n * cells;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        size = new int[columns + 1];
+        chosen = new int[cells];
+        givenRows = new int[cells];
+        board = new int[cells];
+
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? columns : c - 1;
+            right[c] = c == columns ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            int row = cell / n;
+            int col = cell % n;
+            int box = (row / boxSize) * boxSize + col / boxSize;
+            for (int d = 0; d < n; d++) {
+                int first = firstNode(cell * n + d);
+                append(first, 1 + cell);
+                append(first + 1, 1 + cells + row * n + d);
+                append(first + 2, 1 + 2 * cells + col * n + d);
+                append(first + 3, 1 + 3 * cells + box * n + d);
+                for (int k = 0; k < 4; k++) {
+                    left[first + k] = first + (k + 3) % 4;
+                    right[first + k] = first + (k + 1) % 4;
+                }
+            }
+        }
+    }
+
+    /**
+     * returns side of the grid, boxSize^2
+     */
+    public int getSize() {
+        return n;
+    }
+
+    /**
+     * solves board in place
+     *
+     * @param board
+     *            n * n cells, row-major, 0 for empty
+     * @return false if there is no solution (board is left unchanged)
+     * @throws IllegalArgumentException
+     *             if board has the wrong size or digits, or its givens
+     *             conflict
+     */
+    public boolean solve(int[] board) {
+        run(board, 1, null);
+        return getSolution(board);
+    }
+
+    /**
+     * counts solutions of board, stopping at limit
+     */
+    public int countSolutions(int[] board, int limit) {
+        return run(board, limit, null);
+    }
+
+    /**
+     * hands every solution of board to listener until it returns false
+     *
+     * @return number of solutions passed to listener
+     */
+    public int enumerate(int[] board, SolutionListener listener) {
+        return run(board, Integer.MAX_VALUE, listener);
+    }
+
+    /**
+     * copies the first solution found by the last solve or count into board
+     *
+     * @return false if that search found none
+     */
+    public boolean getSolution(int[] board) {
+        if (solutions == 0) {
+            return false;
+        }
+        System.arraycopy(this.board, 0, board, 0, cells);
+        return true;
+    }
+
+    /**
+     * returns rows tried by the last search
+     */
+    public long getGuesses() {
+        return guesses;
+    }
+
+    private int run(int[] input, int limit, SolutionListener listener) {
+        if (input == null || input.length != cells) {
+            throw new IllegalArgumentException("Board must have " + cells + " cells");
+        }
+        this.limit = limit;
+        this.listener = listener;
+        solutions = 0;
+        guesses = 0;
+        givenCount = 0;
+        try {
+            for (int cell = 0; cell < cells; cell++) {
+                int digit = input[cell];
+                if (digit < 0 || digit > n) {
+                    throw new IllegalArgumentException("Invalid digit " + digit
+                            + " at cell " + cell);
+                }
+                if (digit != 0) {
+                    selectGiven(cell, digit);
+                }
+            }
+            if (limit > 0) {
+                System.arraycopy(input, 0, board, 0, cells);
+                search(0);
+            }
+        } finally {
+            // leave the links as built for the next puzzle
+            while (givenCount > 0) {
+                unselect(givenRows[--givenCount]);
+            }
+            this.listener = null;
+        }
+        return solutions;
+    }
+
+    private void selectGiven(int cell, int digit) {
+        int node = firstNode(cell * n + digit - 1);
+        for (int k = 0; k < 4; k++) {
+            int c = column[node + k];
+            if (right[left[c]] != c) {
+                throw new IllegalArgumentException("Digit " + digit + " at cell "
+                        + cell + " conflicts with another given");
+            }
+        }
+        select(node);
+        givenRows[givenCount++] = node;
+    }
+
+    /**
+     * returns true once the search should stop
+     */
+    private boolean search(int depth) {
+        if (right[0] == 0) {
+            return found(depth);
+        }
+        // column with the fewest rows left
+        int best = right[0];
+        for (int c = right[best]; c != 0; c = right[c]) {
+            if (size[c] < size[best]) {
+                best = c;
+            }
+        }
+        if (size[best] == 0) {
+            return false;
+        }
+
+        cover(best);
+        for (int node = down[best]; node != best; node = down[node]) {
+            chosen[depth] = node;
+            guesses++;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+            boolean stop = search(depth + 1);
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+            if (stop) {
+                uncover(best);
+                return true;
+            }
+        }
+        uncover(best);
+        return false;
+    }
+
+    private boolean found(int depth) {
+        solutions++;
+        if (solutions == 1 || listener != null) {
+            for (int i = 0; i < depth; i++) {
+                int row = (chosen[i] - columns - 1) / 4;
+                board[row / n] = row % n + 1;
+            }
+        }
+        if (listener != null && !listener.onSolution(board)) {
+            return true;
+        }
+        return solutions >= limit;
+    }
+
+    private void select(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j]) {
+            cover(column[j]);
+        }
+    }
+
+    private void unselect(int node) {
+        for (int j = left[node]; j != node; j = left[j]) {
+            uncover(column[j]);
+        }
+        uncover(column[node]);
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+
+    private void append(int node, int c) {
+        column[node] = c;
+        up[node] = up[c];
+        down[node] = c;
+        down[up[c]] = node;
+        up[c] = node;
+        size[c]++;
+    }
+
+    private int firstNode(int row) {
+        return 1 + columns + 4 * row;
+    }
+}
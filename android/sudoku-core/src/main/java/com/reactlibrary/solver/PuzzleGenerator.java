@@ -0,0 +1,270 @@
+package com.reactlibrary.solver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates 9x9 puzzles with exactly one solution. A full grid is made by
+ * filling the three diagonal boxes at random and solving the rest; clues
+ * are then taken out in random order, a symmetric group of cells at a time,
+ * and put back whenever the puzzle stops being unique. Uniqueness is checked
+ * with BitmaskSolver.countSolutions(board, 2), which stops at the second
+ * solution. The target clue count is a floor: if no more cells can go
+ * without losing uniqueness the puzzle keeps more clues
+ */
+public class PuzzleGenerator {
+
+    // fewest clues a unique 9x9 puzzle can have
+    public static final int MIN_CLUES = 17;
+    public static final int DEFAULT_CLUES = 26;
+    // puzzles a batch task generates itself instead of forking
+    private static final int LEAF_SIZE = 4;
+
+    /**
+     * cells that are removed together, so the clue pattern keeps this symmetry
+     */
+    public enum Symmetry {
+        NONE, ROTATIONAL, MIRROR, DIAGONAL;
+
+        int partner(int cell) {
+            int row = cell / BitmaskSolver.SIZE;
+            int col = cell % BitmaskSolver.SIZE;
+            int last = BitmaskSolver.SIZE - 1;
+            switch (this) {
+            case ROTATIONAL:
+                return BitmaskSolver.CELLS - 1 - cell;
+            case MIRROR:
+                return row * BitmaskSolver.SIZE + last - col;
+            case DIAGONAL:
+                return col * BitmaskSolver.SIZE + row;
+            default:
+                return cell;
+            }
+        }
+    }
+
+    public static class Puzzle {
+        private final int[] puzzle;
+        private final int[] solution;
+        private final int clues;
+
+        Puzzle(int[] puzzle, int[] solution, int clues) {
+            this.puzzle = puzzle;
+            this.solution = solution;
+            this.clues = clues;
+        }
+
+        /**
+         * returns row-major board, 0 for empty cells
+         */
+        public int[] getPuzzle() {
+            return puzzle;
+        }
+
+        public int[] getSolution() {
+            return solution;
+        }
+
+        public int getClues() {
+            return clues;
+        }
+    }
+
+    private final BitmaskSolver solver = new BitmaskSolver();
+    private final int[] order = new int[BitmaskSolver.CELLS];
+
+    /**
+     * @param targetClues
+     *            clues to stop at, MIN_CLUES to 81
+     */
+    public Puzzle generate(int targetClues, Symmetry symmetry, Random random) {
+        checkClues(targetClues);
+        int[] solution = fullGrid(random);
+        int[] board = solution.clone();
+        int clues = BitmaskSolver.CELLS;
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        shuffle(order, random);
+        for (int cell : order) {
+            if (clues <= targetClues) {
+                break;
+            }
+            int partner = symmetry.partner(cell);
+            if (board[cell] == 0 || partner < cell) {
+                // taken out already, or handled with its partner
+                continue;
+            }
+            int removed = partner == cell ? 1 : 2;
+            if (clues - removed < targetClues) {
+                continue;
+            }
+            board[cell] = 0;
+            board[partner] = 0;
+            if (solver.countSolutions(board, 2) == 1) {
+                clues -= removed;
+            } else {
+                board[cell] = solution[cell];
+                board[partner] = solution[partner];
+            }
+        }
+        return new Puzzle(board, solution, clues);
+    }
+
+    private static void checkClues(int targetClues) {
+        if (targetClues < MIN_CLUES || targetClues > BitmaskSolver.CELLS) {
+            throw new IllegalArgumentException("Clues must be " + MIN_CLUES + " to "
+                    + BitmaskSolver.CELLS + ": " + targetClues);
+        }
+    }
+
+    private int[] fullGrid(Random random) {
+        int[] board = new int[BitmaskSolver.CELLS];
+        int[] digits = { 1, 2, 3, 4, 5, 6, 7, 8, 9 };
+        // the diagonal boxes share no row or column, so any fill is valid
+        for (int box = 0; box < 3; box++) {
+            shuffle(digits, random);
+            for (int i = 0; i < BitmaskSolver.SIZE; i++) {
+                int row = box * 3 + i / 3;
+                int col = box * 3 + i % 3;
+                board[row * BitmaskSolver.SIZE + col] = digits[i];
+            }
+        }
+        solver.solve(board);
+        return board;
+    }
+
+    private static void shuffle(int[] values, Random random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /**
+     * generates count puzzles on pool. Puzzle i is generated from its own
+     * seed, so a batch is the same for a given seed whatever the number of
+     * threads
+     */
+    public static List<Puzzle> generateBatch(ForkJoinPool pool, int count,
+                                             int targetClues, Symmetry symmetry, long seed) {
+        checkClues(targetClues);
+        Puzzle[] puzzles = new Puzzle[count];
+        pool.invoke(new BatchTask(puzzles, 0, count, targetClues, symmetry, seed));
+        return Arrays.asList(puzzles);
+    }
+
+    private static class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Puzzle[] puzzles;
+        private final int from;
+        private final int to;
+        private final int targetClues;
+        private final Symmetry symmetry;
+        private final long seed;
+
+        BatchTask(Puzzle[] puzzles, int from, int to, int targetClues,
+                  Symmetry symmetry, long seed) {
+            this.puzzles = puzzles;
+            this.from = from;
+            this.to = to;
+            this.targetClues = targetClues;
+            this.symmetry = symmetry;
+            this.seed = seed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(puzzles, from, middle, targetClues, symmetry, seed),
+                        new BatchTask(puzzles, middle, to, targetClues, symmetry, seed));
+                return;
+            }
+            PuzzleGenerator generator = new PuzzleGenerator();
+            for (int i = from; i < to; i++) {
+                Random random = new Random(seed + i * 0x9E3779B97F4A7C15L);
+                puzzles[i] = generator.generate(targetClues, symmetry, random);
+            }
+        }
+    }
+
+    private static final String USAGE = "usage: PuzzleGenerator [--count=N] [--clues=N] "
+            + "[--symmetry=none|rotational|mirror|diagonal] [--threads=N] [--seed=N]";
+
+    /**
+     * command line entry point: writes the puzzles to stdout, one per line,
+     * and the rate to stderr
+     */
+    public static void main(String[] args) throws IOException {
+        int count = 1000;
+        int clues = DEFAULT_CLUES;
+        Symmetry symmetry = Symmetry.NONE;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        try {
+            for (String arg : args) {
+                String value = arg.substring(arg.indexOf('=') + 1);
+                if (arg.startsWith("--count=")) {
+                    count = Integer.parseInt(value);
+                } else if (arg.startsWith("--clues=")) {
+                    clues = Integer.parseInt(value);
+                } else if (arg.startsWith("--symmetry=")) {
+                    symmetry = Symmetry.valueOf(value.toUpperCase(Locale.US));
+                } else if (arg.startsWith("--threads=")) {
+                    threads = Integer.parseInt(value);
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(value);
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+            }
+            checkClues(clues);
+            if (count < 1 || threads < 1) {
+                throw new IllegalArgumentException("Count and threads must be positive");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        List<Puzzle> puzzles;
+        try {
+            puzzles = generateBatch(pool, count, clues, symmetry, seed);
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out,
+                Charset.forName("US-ASCII")));
+        long totalClues = 0;
+        for (Puzzle puzzle : puzzles) {
+            for (int digit : puzzle.getPuzzle()) {
+                out.write('0' + digit);
+            }
+            out.write('\n');
+            totalClues += puzzle.getClues();
+        }
+        out.flush();
+        System.err.println(String.format(Locale.US,
+                "%d puzzles in %.2f s (%.1f/s), %.1f clues on average",
+                count, seconds, count / seconds, (double) totalClues / count));
+    }
+}
@@ -0,0 +1,58 @@
+package com.reactlibrary.stats;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reads how many bytes the current thread has allocated so far. On a
+ * HotSpot JVM this is com.sun.management.ThreadMXBean, looked up by
+ * reflection so the class also loads where java.lang.management does not
+ * exist (Android); there NONE is used and allocations are not reported
+ */
+public abstract class AllocationCounter {
+
+    public static final AllocationCounter NONE = new AllocationCounter() {
+        @Override
+        public long allocatedBytes() {
+            return -1;
+        }
+    };
+
+    /**
+     * returns bytes allocated by the current thread since it started, or -1
+     * if unknown
+     */
+    public abstract long allocatedBytes();
+
+    /**
+     * returns the counter of the running VM, or NONE
+     */
+    public static AllocationCounter forRuntime() {
+        try {
+            Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+            final Object bean = factory.getMethod("getThreadMXBean").invoke(null);
+            Class<?> sunBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (!sunBean.isInstance(bean)) {
+                return NONE;
+            }
+            if (!(Boolean) sunBean.getMethod("isThreadAllocatedMemorySupported").invoke(bean)) {
+                return NONE;
+            }
+            sunBean.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(bean, true);
+            final Method allocated = sunBean.getMethod("getThreadAllocatedBytes", long.class);
+            return new AllocationCounter() {
+                @Override
+                public long allocatedBytes() {
+                    try {
+                        return (Long) allocated.invoke(bean, Thread.currentThread().getId());
+                    } catch (Exception e) {
+                        return -1;
+                    }
+                }
+            };
+        } catch (Exception e) {
+            return NONE;
+        } catch (LinkageError e) {
+            return NONE;
+        }
+    }
+}
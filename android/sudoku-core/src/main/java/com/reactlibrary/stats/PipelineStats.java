@@ -0,0 +1,117 @@
+package com.reactlibrary.stats;
+
+/**
+ * Per-stage wall time and allocation histograms of the scan pipeline, one
+ * sample per stage per scan. Off by default: newTimer() then hands out
+ * StageTimer.DISABLED, which records nothing. Histograms are fixed-size, so
+ * the stats cost the same memory however many scans are recorded
+ */
+public class PipelineStats {
+
+    private static final int STAGES = Stage.values().length;
+
+    private final AllocationCounter allocations;
+    private final Histogram[] nanos = new Histogram[STAGES];
+    private final Histogram[] bytes = new Histogram[STAGES];
+    private volatile boolean enabled = false;
+
+    public PipelineStats() {
+        this(AllocationCounter.forRuntime());
+    }
+
+    /**
+     * @param allocations
+     *            per-thread allocation counter, AllocationCounter.NONE to
+     *            record wall time only
+     */
+    public PipelineStats(AllocationCounter allocations) {
+        this.allocations = allocations;
+        for (int i = 0; i < STAGES; i++) {
+            nanos[i] = new Histogram();
+            bytes[i] = new Histogram();
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * returns a timer for one scan, StageTimer.DISABLED while stats are off
+     */
+    public StageTimer newTimer() {
+        return enabled ? new StageTimer(this, allocations) : StageTimer.DISABLED;
+    }
+
+    void record(int stage, long stageNanos, long stageBytes) {
+        nanos[stage].record(stageNanos);
+        if (stageBytes >= 0) {
+            bytes[stage].record(stageBytes);
+        }
+    }
+
+    /**
+     * returns a copy of the histograms recorded so far
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(copy(nanos, false), copy(bytes, false));
+    }
+
+    /**
+     * returns a copy of the histograms and clears them; samples recorded
+     * while this runs may land in either
+     */
+    public Snapshot snapshotAndReset() {
+        return new Snapshot(copy(nanos, true), copy(bytes, true));
+    }
+
+    public void reset() {
+        for (int i = 0; i < STAGES; i++) {
+            nanos[i].reset();
+            bytes[i].reset();
+        }
+    }
+
+    private static Histogram[] copy(Histogram[] histograms, boolean reset) {
+        Histogram[] copy = new Histogram[histograms.length];
+        for (int i = 0; i < histograms.length; i++) {
+            copy[i] = histograms[i].snapshot();
+            if (reset) {
+                histograms[i].reset();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * histograms of PipelineStats at one point in time
+     */
+    public static class Snapshot {
+        private final Histogram[] nanos;
+        private final Histogram[] bytes;
+
+        Snapshot(Histogram[] nanos, Histogram[] bytes) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+
+        /**
+         * returns wall time of stage per scan, in nanoseconds
+         */
+        public Histogram getNanos(Stage stage) {
+            return nanos[stage.ordinal()];
+        }
+
+        /**
+         * returns bytes allocated by the scanning thread in stage per scan;
+         * empty where allocations are not counted
+         */
+        public Histogram getBytes(Stage stage) {
+            return bytes[stage.ordinal()];
+        }
+    }
+}
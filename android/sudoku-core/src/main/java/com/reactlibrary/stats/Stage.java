@@ -0,0 +1,30 @@
+package com.reactlibrary.stats;
+
+import java.util.Locale;
+
+/**
+ * Stages of a scan that PipelineStats times
+ */
+public enum Stage {
+    // photo to bitmap: base64 or file decode
+    DECODE,
+    // grey conversion, blur and threshold
+    PREPROCESS,
+    // grid search and perspective warp
+    GRID,
+    // digit bounding rects, clean digit crops and digit tiles
+    BLOBS,
+    // digit recognition and constraint decoding
+    OCR,
+    // preview image encoding
+    PREVIEW,
+    // the whole scan, including the stages above
+    TOTAL;
+
+    /**
+     * returns name used in reports, e.g. "preprocess"
+     */
+    public String key() {
+        return name().toLowerCase(Locale.US);
+    }
+}
@@ -0,0 +1,95 @@
+package com.reactlibrary.stats;
+
+/**
+ * Times the stages of one scan on the scanning thread. A stage can be
+ * started and stopped several times; its times and allocations add up, and
+ * finish() records one sample per stage that ran into the PipelineStats.
+ * Allocations are those of the calling thread, so work handed to other
+ * threads (e.g. parallel OCR workers) only counts towards wall time. The
+ * DISABLED timer ignores every call, so instrumented code costs a field
+ * check when stats are off. Not thread-safe
+ */
+public class StageTimer {
+
+    public static final StageTimer DISABLED = new StageTimer(null, AllocationCounter.NONE);
+
+    private static final int STAGES = Stage.values().length;
+
+    private final PipelineStats stats;
+    private final AllocationCounter allocations;
+    private final long[] started = new long[STAGES];
+    private final long[] startedBytes = new long[STAGES];
+    private final long[] nanos = new long[STAGES];
+    private final long[] bytes = new long[STAGES];
+    private final boolean[] ran = new boolean[STAGES];
+
+    StageTimer(PipelineStats stats, AllocationCounter allocations) {
+        this.stats = stats;
+        this.allocations = allocations;
+    }
+
+    public boolean isEnabled() {
+        return stats != null;
+    }
+
+    public void start(Stage stage) {
+        if (stats == null) {
+            return;
+        }
+        int i = stage.ordinal();
+        startedBytes[i] = allocations.allocatedBytes();
+        started[i] = System.nanoTime();
+    }
+
+    public void stop(Stage stage) {
+        if (stats == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        int i = stage.ordinal();
+        nanos[i] += now - started[i];
+        long allocated = allocations.allocatedBytes();
+        if (allocated >= 0 && startedBytes[i] >= 0) {
+            bytes[i] += allocated - startedBytes[i];
+        } else {
+            bytes[i] = -1;
+        }
+        ran[i] = true;
+    }
+
+    /**
+     * returns time spent in stage so far, 0 if it did not run or the timer is
+     * disabled
+     */
+    public long getNanos(Stage stage) {
+        return nanos[stage.ordinal()];
+    }
+
+    /**
+     * returns bytes allocated in stage so far, -1 if unknown
+     */
+    public long getBytes(Stage stage) {
+        return ran[stage.ordinal()] ? bytes[stage.ordinal()] : 0;
+    }
+
+    public boolean ran(Stage stage) {
+        return ran[stage.ordinal()];
+    }
+
+    /**
+     * records the stages that ran and clears the timer for the next scan
+     */
+    public void finish() {
+        if (stats == null) {
+            return;
+        }
+        for (int i = 0; i < STAGES; i++) {
+            if (ran[i]) {
+                stats.record(i, nanos[i], bytes[i]);
+            }
+            nanos[i] = 0;
+            bytes[i] = 0;
+            ran[i] = false;
+        }
+    }
+}
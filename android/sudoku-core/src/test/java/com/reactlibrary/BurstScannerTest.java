@@ -0,0 +1,140 @@
+package com.reactlibrary;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.imageproc.GridDetector;
+import com.reactlibrary.imageproc.SharpnessMeter;
+import com.reactlibrary.ocr.DigitRecognizer;
+import com.reactlibrary.ocr.DigitRecognizerFactory;
+
+public class BurstScannerTest {
+
+    private static final Scalar INK = new Scalar(30);
+    private static final Scalar PAPER = new Scalar(210);
+
+    private final MatPool pool = new MatPool(16);
+
+    @BeforeClass
+    public static void loadOpenCv() {
+        nu.pattern.OpenCV.loadLocally();
+    }
+
+    @After
+    public void tearDown() {
+        pool.clear();
+    }
+
+    /**
+     * returns a frame source with a 9x9 grid of side 450 whose upLeft corner
+     * is at (100 + dx, 60 + dy) and a 7 in cells (0, 0) and (4, 4), blurred
+     * with a kernel of blur pixels when blur is above 0
+     */
+    private static ImageSource frame(final int dx, final int dy, final int blur) {
+        return new ImageSource() {
+            @Override
+            public Mat toRgba(MatPool.Scope scope) {
+                Mat grey = new Mat(600, 800, CvType.CV_8UC1, PAPER);
+                int left = 100 + dx;
+                int top = 60 + dy;
+                for (int i = 0; i <= 9; i++) {
+                    int at = i * 50;
+                    int half = i % 3 == 0 ? 3 : 1;
+                    Imgproc.rectangle(grey, new Point(left - half, top + at - half),
+                            new Point(left + 450 + half, top + at + half), INK, -1);
+                    Imgproc.rectangle(grey, new Point(left + at - half, top - half),
+                            new Point(left + at + half, top + 450 + half), INK, -1);
+                }
+                for (int cell : new int[] { 0, 4 }) {
+                    Imgproc.putText(grey, "7", new Point(left + cell * 50 + 14, top + cell * 50 + 40),
+                            Imgproc.FONT_HERSHEY_DUPLEX, 1.2, INK, 3);
+                }
+                if (blur > 0) {
+                    Imgproc.GaussianBlur(grey, grey, new Size(blur, blur), 0);
+                }
+                Mat rgba = scope.obtain(grey.size(), CvType.CV_8UC4);
+                Imgproc.cvtColor(grey, rgba, Imgproc.COLOR_GRAY2RGBA);
+                grey.release();
+                return rgba;
+            }
+        };
+    }
+
+    private static BurstScanner scanner() {
+        SudokuScanner scanner = new SudokuScanner(null, new DigitRecognizerFactory() {
+            @Override
+            public DigitRecognizer create() {
+                return new DigitRecognizer() {
+                    @Override
+                    public int recognize(Mat digit) {
+                        return 7;
+                    }
+                };
+            }
+
+            @Override
+            public void release(DigitRecognizer recognizer) {
+            }
+        });
+        scanner.setConstraintDecoder(null);
+        scanner.setRecognizerWorkers(1);
+        return new BurstScanner(scanner, new GridDetector(), new SharpnessMeter());
+    }
+
+    @Test
+    public void readsSharpestFrame() throws Exception {
+        BurstScanner burst = scanner();
+        List<ImageSource> frames = Arrays.asList(frame(0, 0, 9), frame(2, 1, 0),
+                frame(3, 1, 9), frame(3, 2, 5));
+        int[][] grid = burst.scan(frames, pool);
+        assertEquals(1, burst.getSharpestFrame());
+        assertEquals(3, burst.getTrackedFrames());
+        for (int row = 0; row < 9; row++) {
+            for (int col = 0; col < 9; col++) {
+                int expected = row == col && (row == 0 || row == 4) ? 7 : 0;
+                assertEquals("cell " + row + "," + col, expected, grid[row][col]);
+            }
+        }
+    }
+
+    @Test
+    public void detectsAgainAfterLosingGrid() throws Exception {
+        BurstScanner burst = scanner();
+        ImageSource empty = new ImageSource() {
+            @Override
+            public Mat toRgba(MatPool.Scope scope) {
+                return scope.obtain(600, 800, CvType.CV_8UC4).setTo(PAPER);
+            }
+        };
+        List<ImageSource> frames = Arrays.asList(frame(0, 0, 5), empty, frame(1, 0, 0));
+        burst.scan(frames, pool);
+        assertEquals(2, burst.getSharpestFrame());
+        assertEquals(0, burst.getTrackedFrames());
+    }
+
+    @Test
+    public void noGridInAnyFrame() throws Exception {
+        BurstScanner burst = scanner();
+        ImageSource empty = new ImageSource() {
+            @Override
+            public Mat toRgba(MatPool.Scope scope) {
+                return scope.obtain(600, 800, CvType.CV_8UC4).setTo(PAPER);
+            }
+        };
+        assertNull(burst.scan(Arrays.asList(empty, empty), pool));
+        assertEquals(-1, burst.getSharpestFrame());
+    }
+}
@@ -0,0 +1,176 @@
+package com.reactlibrary.imageproc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Scalar;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import com.reactlibrary.MatPool;
+
+public class CornerTrackerTest {
+
+    private static final Size GRID_SIZE = new Size(450, 450);
+    private static final Scalar INK = new Scalar(30);
+
+    private final MatPool pool = new MatPool(16);
+    private final MatPool.Scope scope = pool.openScope();
+    private final GridDetector detector = new GridDetector();
+    private final CornerTracker tracker = new CornerTracker(detector);
+
+    @BeforeClass
+    public static void loadOpenCv() {
+        nu.pattern.OpenCV.loadLocally();
+    }
+
+    @After
+    public void tearDown() {
+        tracker.reset();
+        scope.close();
+        pool.clear();
+    }
+
+    /**
+     * returns a 640x480 frame with a 9x9 grid of side 300 whose upLeft corner
+     * is at (150 + dx, 90 + dy); lines are drawn as rectangles so the border
+     * has square corners, as printed grids do
+     */
+    private Mat frame(int dx, int dy) {
+        Mat grey = scope.obtain(480, 640, CvType.CV_8UC1);
+        grey.setTo(new Scalar(210));
+        int left = 150 + dx;
+        int top = 90 + dy;
+        for (int i = 0; i <= 9; i++) {
+            int at = i * 300 / 9;
+            int half = i % 3 == 0 ? 3 : 1;
+            Imgproc.rectangle(grey, new Point(left - half, top + at - half),
+                    new Point(left + 300 + half, top + at + half), INK, -1);
+            Imgproc.rectangle(grey, new Point(left + at - half, top - half),
+                    new Point(left + at + half, top + 300 + half), INK, -1);
+        }
+        return grey;
+    }
+
+    private static void assertMoved(List<Point> from, List<Point> to, double dx, double dy) {
+        assertNear(from, to, dx, dy, 0.5);
+    }
+
+    private static void assertNear(List<Point> from, List<Point> to, double dx, double dy,
+                                   double delta) {
+        for (int i = 0; i < 4; i++) {
+            assertEquals("x of corner " + i, from.get(i).x + dx, to.get(i).x, delta);
+            assertEquals("y of corner " + i, from.get(i).y + dy, to.get(i).y, delta);
+        }
+    }
+
+    @Test
+    public void followsSmallShift() {
+        Mat grey = frame(0, 0);
+        List<Point> detected = copy(tracker.track(grey, scope));
+        assertFalse(tracker.wasTracked());
+        List<Point> first = copy(tracker.track(grey, scope));
+        assertTrue(tracker.wasTracked());
+        // the refined corners stay close to the detected ones
+        assertNear(detected, first, 0, 0, 2);
+
+        Mat shifted = frame(4, 3);
+        List<Point> next = tracker.track(shifted, scope);
+        assertTrue(tracker.wasTracked());
+        assertMoved(first, next, 4, 3);
+        assertNear(detector.detect(shifted, scope), next, 0, 0, 2);
+    }
+
+    @Test
+    public void detectsAgainWhenGridJumps() {
+        List<Point> first = copy(tracker.track(frame(0, 0), scope));
+        // far beyond the search window of each corner
+        List<Point> next = tracker.track(frame(120, 40), scope);
+        assertNotNull(next);
+        assertFalse(tracker.wasTracked());
+        assertNear(first, next, 120, 40, 2);
+        // and followed again from there
+        next = copy(tracker.track(frame(120, 40), scope));
+        assertTrue(tracker.wasTracked());
+        assertMoved(next, tracker.track(frame(122, 40), scope), 2, 0);
+        assertTrue(tracker.wasTracked());
+    }
+
+    @Test
+    public void losesGridOnEmptyFrame() {
+        assertNotNull(tracker.track(frame(0, 0), scope));
+        Mat empty = scope.obtain(480, 640, CvType.CV_8UC1);
+        empty.setTo(new Scalar(210));
+        assertNull(tracker.track(empty, scope));
+        assertFalse(tracker.wasTracked());
+        try {
+            tracker.getTransform(GRID_SIZE);
+            fail("transform without a grid");
+        } catch (IllegalStateException expected) {
+            // no grid to warp
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void warpNeedsGrid() {
+        tracker.warpGrid(frame(0, 0), GRID_SIZE, scope);
+    }
+
+    @Test
+    public void reusesTransformWhileGridHoldsStill() {
+        Mat grey = frame(0, 0);
+        tracker.track(grey, scope);
+        tracker.track(grey, scope);
+        Mat transform = tracker.getTransform(GRID_SIZE);
+        tracker.track(grey, scope);
+        assertTrue(tracker.wasTracked());
+        assertSame(transform, tracker.getTransform(GRID_SIZE));
+
+        double x = transform.get(0, 2)[0];
+        tracker.track(frame(4, 3), scope);
+        Mat moved = tracker.getTransform(GRID_SIZE);
+        assertNotSame(transform, moved);
+        // the new transform undoes the shift
+        assertTrue(moved.get(0, 2)[0] < x - 1);
+        assertNotSame(moved, tracker.getTransform(new Size(300, 300)));
+    }
+
+    @Test
+    public void warpMatchesDetector() {
+        tracker.track(frame(0, 0), scope);
+        Mat shifted = frame(4, 3);
+        List<Point> corners = tracker.track(shifted, scope);
+        assertTrue(tracker.wasTracked());
+
+        Mat tracked = tracker.warpGrid(shifted, GRID_SIZE, scope);
+        Mat detected = detector.warpGrid(shifted, corners, GRID_SIZE, scope);
+        Mat diff = scope.obtain(GRID_SIZE, CvType.CV_8UC1);
+        Core.absdiff(tracked, detected, diff);
+        assertTrue(Core.countNonZero(diff) < 0.01 * GRID_SIZE.area());
+        assertTrue(Core.countNonZero(tracked) > 0);
+    }
+
+    private static List<Point> copy(List<Point> points) {
+        List<Point> copy = new ArrayList<Point>(4);
+        for (Point point : points) {
+            copy.add(point.clone());
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,87 @@
+package com.reactlibrary.imageproc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class UnionFindTest {
+
+    @Test
+    public void labelsStartAlone() {
+        UnionFind sets = new UnionFind(4);
+        for (int i = 0; i < 4; i++) {
+            sets.addLabel(i);
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, sets.find(i));
+        }
+    }
+
+    @Test
+    public void unionJoinsSets() {
+        UnionFind sets = new UnionFind(8);
+        for (int i = 0; i < 8; i++) {
+            sets.addLabel(i);
+        }
+        sets.union(1, 2);
+        sets.union(3, 4);
+        sets.union(2, 4);
+        sets.union(6, 7);
+        int root = sets.find(1);
+        for (int label : new int[] { 2, 3, 4 }) {
+            assertEquals(root, sets.find(label));
+        }
+        assertEquals(sets.find(6), sets.find(7));
+        assertNotEquals(root, sets.find(6));
+        assertEquals(5, sets.find(5));
+        // joining a set with itself changes nothing
+        sets.union(4, 1);
+        assertEquals(root, sets.find(3));
+    }
+
+    @Test
+    public void unionByRankKeepsTallerRoot() {
+        UnionFind sets = new UnionFind(4);
+        for (int i = 0; i < 4; i++) {
+            sets.addLabel(i);
+        }
+        // equal ranks: the first root wins and grows a rank
+        sets.union(0, 1);
+        assertEquals(0, sets.find(1));
+        // a single label joins under the taller tree whichever side it is on
+        sets.union(2, 0);
+        assertEquals(0, sets.find(2));
+        sets.union(1, 3);
+        assertEquals(0, sets.find(3));
+    }
+
+    @Test
+    public void joinsMillionLabels() {
+        int n = 1000000;
+        UnionFind sets = new UnionFind(n);
+        for (int i = 0; i < n; i++) {
+            sets.addLabel(i);
+        }
+        // the labels of a long stroke, joined one neighbour at a time
+        for (int i = n - 1; i > 0; i--) {
+            sets.union(i - 1, i);
+        }
+        int root = sets.find(n - 1);
+        for (int i = 0; i < n; i++) {
+            assertEquals(root, sets.find(i));
+        }
+    }
+
+    @Test
+    public void growsPastCapacity() {
+        UnionFind sets = new UnionFind(1);
+        for (int i = 0; i < 1000; i += 7) {
+            sets.addLabel(i);
+        }
+        sets.union(0, 994);
+        sets.union(994, 497);
+        assertEquals(sets.find(0), sets.find(497));
+        assertEquals(7, sets.find(7));
+    }
+}
@@ -0,0 +1,85 @@
+package com.reactlibrary.ocr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DigitClassifierTest {
+
+    /**
+     * returns a glyph with the first count bits set
+     */
+    private static long[] glyph(int count) {
+        long[] bits = new long[GlyphNormalizer.WORDS];
+        for (int i = 0; i < count; i++) {
+            bits[i >> 6] |= 1L << (i & 63);
+        }
+        return bits;
+    }
+
+    @Test
+    public void nearestPrototypeWins() {
+        DigitPrototypes prototypes = new DigitPrototypes();
+        prototypes.add(1, glyph(0));
+        prototypes.add(7, glyph(100));
+        prototypes.add(4, glyph(200));
+        DigitClassifier classifier = new DigitClassifier(prototypes, 1);
+        assertEquals(1, classifier.classify(glyph(10)));
+        assertEquals(7, classifier.classify(glyph(120)));
+        assertEquals(4, classifier.classify(glyph(256)));
+    }
+
+    @Test
+    public void majorityOfNearestVotes() {
+        DigitPrototypes prototypes = new DigitPrototypes();
+        // one 3 right next to the glyph, two 8s a bit further
+        prototypes.add(3, glyph(50));
+        prototypes.add(8, glyph(44));
+        prototypes.add(8, glyph(57));
+        prototypes.add(5, glyph(200));
+        assertEquals(3, new DigitClassifier(prototypes, 1).classify(glyph(51)));
+        assertEquals(8, new DigitClassifier(prototypes, 3).classify(glyph(51)));
+    }
+
+    @Test
+    public void tieGoesToNearest() {
+        DigitPrototypes prototypes = new DigitPrototypes();
+        prototypes.add(6, glyph(30));
+        prototypes.add(9, glyph(38));
+        prototypes.add(2, glyph(100));
+        prototypes.add(2, glyph(110));
+        // 6 and 9 get a vote each, 6 is nearer
+        assertEquals(6, new DigitClassifier(prototypes, 2).classify(glyph(32)));
+    }
+
+    @Test
+    public void ranksDigitsByNearestPrototype() {
+        DigitPrototypes prototypes = new DigitPrototypes();
+        prototypes.add(1, glyph(0));
+        prototypes.add(7, glyph(10));
+        prototypes.add(7, glyph(90));
+        prototypes.add(4, glyph(40));
+        DigitClassifier classifier = new DigitClassifier(prototypes);
+        int[] digits = new int[5];
+        float[] confidences = new float[5];
+        int count = classifier.rank(glyph(8), digits, confidences);
+        assertEquals(3, count);
+        assertEquals(7, digits[0]);
+        assertEquals(1, digits[1]);
+        assertEquals(4, digits[2]);
+        float total = 0;
+        for (int i = 0; i < count; i++) {
+            total += confidences[i];
+            if (i > 0) {
+                assertTrue(confidences[i] < confidences[i - 1]);
+            }
+        }
+        assertEquals(1f, total, 1e-5f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void needsPrototypes() {
+        new DigitClassifier(new DigitPrototypes());
+    }
+}
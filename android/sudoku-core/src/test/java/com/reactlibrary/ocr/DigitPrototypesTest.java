@@ -0,0 +1,63 @@
+package com.reactlibrary.ocr;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class DigitPrototypesTest {
+
+    @Test
+    public void writeThenLoadKeepsPrototypes() throws IOException {
+        DigitPrototypes prototypes = new DigitPrototypes();
+        // more than the initial 64 slots, so add() grows
+        for (int i = 0; i < 100; i++) {
+            long[] glyph = new long[GlyphNormalizer.WORDS];
+            for (int w = 0; w < glyph.length; w++) {
+                glyph[w] = i * 0x9E3779B97F4A7C15L + w;
+            }
+            prototypes.add(i % 9 + 1, glyph);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        prototypes.write(out);
+
+        DigitPrototypes loaded = DigitPrototypes.load(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(prototypes.size(), loaded.size());
+        for (int i = 0; i < prototypes.size(); i++) {
+            assertEquals(prototypes.getLabel(i), loaded.getLabel(i));
+            assertArrayEquals(prototypes.getGlyph(i), loaded.getGlyph(i));
+        }
+    }
+
+    @Test
+    public void loadsEmptySet() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DigitPrototypes().write(out);
+        assertEquals(0, DigitPrototypes.load(new ByteArrayInputStream(out.toByteArray())).size());
+    }
+
+    @Test
+    public void rejectsOtherFiles() {
+        byte[][] files = {
+                // wrong magic
+                { 0, 0, 0, 0, 0, 0, 0, 16, 0, 0, 0, 0 },
+                // right magic, glyph side 8
+                { 'S', 'D', 'P', '1', 0, 0, 0, 8, 0, 0, 0, 0 },
+                // truncated after one label
+                { 'S', 'D', 'P', '1', 0, 0, 0, 16, 0, 0, 0, 1, 5 },
+        };
+        for (byte[] file : files) {
+            try {
+                DigitPrototypes.load(new ByteArrayInputStream(file));
+                fail("loaded " + file.length + " bytes");
+            } catch (IOException expected) {
+                // not a prototype file for this glyph size
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.reactlibrary.ocr;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GlyphNormalizerTest {
+
+    private final GlyphNormalizer normalizer = new GlyphNormalizer();
+
+    /**
+     * returns a width x height buffer with the rectangle set
+     */
+    static byte[] rect(int width, int height, int left, int top, int right, int bottom) {
+        byte[] img = new byte[width * height];
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x++) {
+                img[y * width + x] = (byte) 255;
+            }
+        }
+        return img;
+    }
+
+    static boolean bit(long[] bits, int x, int y) {
+        int i = y * GlyphNormalizer.SIDE + x;
+        return (bits[i >> 6] & (1L << (i & 63))) != 0;
+    }
+
+    @Test
+    public void emptyGlyphIsAllZero() {
+        long[] bits = normalizer.normalize(new byte[20 * 30], 20, 30);
+        assertArrayEquals(new long[GlyphNormalizer.WORDS], bits);
+    }
+
+    @Test
+    public void squareFillsTheGlyph() {
+        long[] bits = normalizer.normalize(rect(40, 40, 5, 7, 25, 27), 40, 40);
+        for (long word : bits) {
+            assertEquals(-1L, word);
+        }
+    }
+
+    @Test
+    public void sameShapeAnywhereAnySize() {
+        // a 1 x 4 bar, placed and scaled differently
+        long[] small = normalizer.normalize(rect(30, 30, 2, 3, 6, 19), 30, 30);
+        long[] large = normalizer.normalize(rect(100, 120, 60, 10, 72, 58), 100, 120);
+        assertArrayEquals(small, large);
+    }
+
+    @Test
+    public void tallBarIsCentred() {
+        // a quarter as wide as it is tall: it keeps its aspect ratio and
+        // covers the middle columns of every row
+        long[] bits = normalizer.normalize(rect(64, 64, 10, 0, 26, 64), 64, 64);
+        int side = GlyphNormalizer.SIDE;
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                boolean inside = x >= 6 && x < 10;
+                assertEquals("pixel " + x + "," + y, inside, bit(bits, x, y));
+            }
+        }
+        assertTrue(bit(bits, side / 2, 0));
+        assertFalse(bit(bits, 0, side / 2));
+    }
+}
@@ -0,0 +1,103 @@
+package com.reactlibrary.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class BatchSolverTest {
+
+    private static final String INKALA_SOLUTION =
+            "812753649943682175675491283154237896369845721287169534521974368438526917796318452";
+    private static final String EMPTY =
+            "000000000000000000000000000000000000000000000000000000000000000000000000000000000";
+    // givens do not conflict, but cell 8 needs a 9 its column already has
+    private static final String UNSOLVABLE =
+            "12345678.........9...............................................................";
+    // two 5s in the first row
+    private static final String CONFLICT =
+            "550070000600195000098000060800060003400803001700020006060000280000419005000080079";
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void writesResultsInInputOrder() throws IOException {
+        String[] puzzles = {
+                Sudokus.EASY,
+                Sudokus.INKALA.replace('0', '.') + "," + INKALA_SOLUTION,
+                EMPTY,
+                UNSOLVABLE,
+                CONFLICT,
+                Sudokus.EASY.substring(1),
+                Sudokus.EASY.replace('3', 'x'),
+        };
+        String[] results = {
+                Sudokus.EASY_SOLUTION,
+                INKALA_SOLUTION,
+                "multiple",
+                "unsolvable",
+                "invalid",
+                "invalid",
+                "invalid",
+        };
+        // chunks of 100 split into tasks of at most 64, so results come back
+        // from several threads and chunks
+        int count = 700;
+        StringBuilder in = new StringBuilder("# comment\n\n");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            in.append(puzzles[i % puzzles.length]).append('\n');
+            if (i % 50 == 0) {
+                in.append("# skipped\n   \n");
+            }
+            expected.append(results[i % results.length]).append('\n');
+        }
+
+        StringWriter out = new StringWriter();
+        BatchSolver.Report report = new BatchSolver(pool, 100, true).run(
+                new BufferedReader(new StringReader(in.toString())), out);
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(count, report.getTotal());
+        assertEquals(count * 2 / 7, report.getCount(BatchSolver.Status.SOLVED));
+        assertEquals(count / 7, report.getCount(BatchSolver.Status.MULTIPLE));
+        assertEquals(count / 7, report.getCount(BatchSolver.Status.UNSOLVABLE));
+        assertEquals(count * 3 / 7, report.getCount(BatchSolver.Status.INVALID));
+    }
+
+    @Test
+    public void solvesSingleLines() {
+        BatchSolver solver = new BatchSolver(pool, BatchSolver.DEFAULT_CHUNK_SIZE, true);
+        StringBuilder result = new StringBuilder();
+        assertEquals(BatchSolver.Status.SOLVED, solver.solve(Sudokus.EASY + " trailing", result));
+        assertEquals(Sudokus.EASY_SOLUTION, result.toString());
+        assertEquals(BatchSolver.Status.MULTIPLE, solver.solve(EMPTY, result));
+        assertEquals(0, result.length());
+        assertEquals(BatchSolver.Status.UNSOLVABLE, solver.solve(UNSOLVABLE, result));
+        assertEquals(BatchSolver.Status.INVALID, solver.solve(CONFLICT, result));
+        assertEquals(BatchSolver.Status.INVALID, solver.solve("", result));
+    }
+
+    @Test
+    public void writesFirstSolutionWithoutUniquenessCheck() throws IOException {
+        StringWriter out = new StringWriter();
+        BatchSolver.Report report = new BatchSolver(pool, 100, false).run(
+                new BufferedReader(new StringReader(EMPTY + "\n" + UNSOLVABLE + "\n")), out);
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        Sudokus.assertSolves(new int[BitmaskSolver.CELLS], Sudokus.parse(lines[0]), 3);
+        assertEquals("unsolvable", lines[1]);
+        assertEquals(1, report.getCount(BatchSolver.Status.SOLVED));
+        assertEquals(1, report.getCount(BatchSolver.Status.UNSOLVABLE));
+    }
+}
@@ -0,0 +1,114 @@
+package com.reactlibrary.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class BitmaskSolverTest {
+
+    private final BitmaskSolver solver = new BitmaskSolver();
+
+    @Test
+    public void solvesEasyPuzzle() {
+        int[] board = Sudokus.parse(Sudokus.EASY);
+        assertTrue(solver.solve(board));
+        assertArrayEquals(Sudokus.parse(Sudokus.EASY_SOLUTION), board);
+    }
+
+    @Test
+    public void solvesHardPuzzles() {
+        for (String puzzle : new String[] { Sudokus.INKALA, Sudokus.SEVENTEEN_CLUES }) {
+            int[] givens = Sudokus.parse(puzzle);
+            int[] board = givens.clone();
+            assertTrue(puzzle, solver.solve(board));
+            Sudokus.assertSolves(givens, board, 3);
+        }
+    }
+
+    @Test
+    public void countsSolutions() {
+        assertEquals(1, solver.countSolutions(Sudokus.parse(Sudokus.INKALA), 2));
+        // no givens: stops at the limit
+        assertEquals(5, solver.countSolutions(new int[BitmaskSolver.CELLS], 5));
+
+        // a solved grid with one row cleared is still unique
+        int[] board = Sudokus.parse(Sudokus.EASY_SOLUTION);
+        for (int col = 0; col < 9; col++) {
+            board[col] = 0;
+        }
+        assertEquals(1, solver.countSolutions(board, 2));
+
+        // rows 0 and 3, columns 3 and 4 hold 6 7 / 7 6 in two boxes, so
+        // clearing them leaves exactly two solutions
+        int[] ambiguous = Sudokus.parse(Sudokus.EASY_SOLUTION);
+        ambiguous[3] = 0;
+        ambiguous[4] = 0;
+        ambiguous[30] = 0;
+        ambiguous[31] = 0;
+        assertEquals(2, solver.countSolutions(ambiguous, 2));
+        assertEquals(2, solver.countSolutions(ambiguous, 10));
+    }
+
+    @Test
+    public void countLeavesFirstSolution() {
+        int[] givens = Sudokus.parse(Sudokus.EASY);
+        assertEquals(1, solver.countSolutions(givens, 2));
+        int[] board = new int[BitmaskSolver.CELLS];
+        assertTrue(solver.getSolution(board));
+        assertArrayEquals(Sudokus.parse(Sudokus.EASY_SOLUTION), board);
+    }
+
+    @Test
+    public void reportsUnsolvable() {
+        // givens do not conflict, but cell 8 needs a 9 its column already has
+        int[] board = Sudokus.parse(
+                "123456780000000009000000000000000000000000000000000000000000000000000000000000000");
+        int[] before = board.clone();
+        assertFalse(solver.solve(board));
+        assertArrayEquals(before, board);
+        assertEquals(0, solver.countSolutions(board, 2));
+        assertFalse(solver.getSolution(board));
+    }
+
+    @Test
+    public void rejectsConflictingGivens() {
+        String[] conflicts = {
+                // row
+                "550070000600195000098000060800060003400803001700020006060000280000419005000080079",
+                // column
+                "530070000500195000098000060800060003400803001700020006060000280000419005000080079",
+                // box
+                "530070000600195000398000060800060003400803001700020006060000280000419005000080079",
+        };
+        for (String puzzle : conflicts) {
+            try {
+                solver.solve(Sudokus.parse(puzzle));
+                fail("accepted " + puzzle);
+            } catch (IllegalArgumentException expected) {
+                // conflicting givens
+            }
+        }
+        // the solver is still usable afterwards
+        int[] board = Sudokus.parse(Sudokus.EASY);
+        assertTrue(solver.solve(board));
+        assertArrayEquals(Sudokus.parse(Sudokus.EASY_SOLUTION), board);
+    }
+
+    @Test
+    public void rejectsMalformedBoards() {
+        int[][] boards = { new int[80], new int[BitmaskSolver.CELLS], };
+        boards[1][3] = 10;
+        for (int[] board : boards) {
+            try {
+                solver.solve(board);
+                fail("accepted board of " + board.length + " cells");
+            } catch (IllegalArgumentException expected) {
+                // wrong size or digit
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.reactlibrary.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ConstraintDecoderTest {
+
+    private final int[] givens = Sudokus.parse(Sudokus.EASY);
+    private final int[] board = new int[BitmaskSolver.CELLS];
+
+    /**
+     * returns the givens read cleanly, each with a runner-up digit that is
+     * not its own
+     */
+    private CellCandidates read() {
+        CellCandidates candidates = new CellCandidates(3);
+        for (int cell = 0; cell < givens.length; cell++) {
+            if (givens[cell] != 0) {
+                set(candidates, cell, givens[cell], 0.9f, givens[cell] % 9 + 1, 0.05f);
+            }
+        }
+        return candidates;
+    }
+
+    private static void set(CellCandidates candidates, int cell, int first,
+                            float firstConfidence, int second, float secondConfidence) {
+        candidates.set(cell, new int[] { first, second },
+                new float[] { firstConfidence, secondConfidence }, 2);
+    }
+
+    @Test
+    public void cleanReadTakesFewNodes() {
+        ConstraintDecoder decoder = new ConstraintDecoder();
+        assertTrue(decoder.decode(read(), board));
+        assertArrayEquals(givens, board);
+        int clues = 0;
+        for (int digit : givens) {
+            if (digit != 0) {
+                clues++;
+            }
+        }
+        // one pass down to the clean read, then each runner-up that fits is
+        // cut by the bound right after it is placed
+        assertTrue(decoder.getNodes() <= 2 * clues);
+        assertFalse(decoder.wasExhausted());
+    }
+
+    @Test
+    public void fixesRepeatedDigit() {
+        // cell 1 holds 3; reading it as the 5 of cell 0 repeats a digit in
+        // row 0 and box 0
+        CellCandidates candidates = read();
+        set(candidates, 1, 5, 0.6f, 3, 0.35f);
+        ConstraintDecoder decoder = new ConstraintDecoder();
+        assertTrue(decoder.decode(candidates, board));
+        assertArrayEquals(givens, board);
+        assertTrue(decoder.getNodes() < ConstraintDecoder.DEFAULT_MAX_NODES);
+        assertFalse(decoder.wasExhausted());
+    }
+
+    @Test
+    public void fixesSeveralMisreads() {
+        CellCandidates candidates = read();
+        // the 7 of cell 4 read as the 9 column 4 already has
+        set(candidates, 4, 9, 0.7f, 7, 0.25f);
+        // the 8 of cell 27 read as the 6 row 3 already has
+        set(candidates, 27, 6, 0.55f, 8, 0.4f);
+        // the 9 of cell 80 read as the 7 row 8 already has
+        set(candidates, 80, 7, 0.8f, 9, 0.15f);
+        ConstraintDecoder decoder = new ConstraintDecoder();
+        assertTrue(decoder.decode(candidates, board));
+        assertArrayEquals(givens, board);
+        assertTrue(decoder.getNodes() < ConstraintDecoder.DEFAULT_MAX_NODES);
+        assertFalse(decoder.wasExhausted());
+    }
+
+    @Test
+    public void keepsBestReadWhenNothingFits() {
+        // cells 0 and 1 are both surely 5
+        CellCandidates candidates = new CellCandidates(1);
+        candidates.setDigit(0, 5);
+        candidates.setDigit(1, 5);
+        ConstraintDecoder decoder = new ConstraintDecoder();
+        assertFalse(decoder.decode(candidates, board));
+        assertArrayEquals(candidates.toBoard(), board);
+    }
+
+    @Test
+    public void stopsAtNodeBudget() {
+        CellCandidates candidates = read();
+        set(candidates, 1, 5, 0.6f, 3, 0.35f);
+        ConstraintDecoder decoder = new ConstraintDecoder(5, true);
+        decoder.decode(candidates, board);
+        assertTrue(decoder.wasExhausted());
+        assertTrue(decoder.getNodes() <= 5);
+    }
+
+    @Test
+    public void rejectsUnsolvableReading() {
+        // row 0 leaves cell 8 only a 9; reading cell 17 as 9 repeats nothing
+        // but takes that 9 from column 8, reading it as 1 does not
+        int[] read = Sudokus.parse(
+                "123456780000000009000000000000000000000000000000000000000000000000000000000000000");
+        CellCandidates candidates = new CellCandidates(2);
+        for (int cell = 0; cell < read.length; cell++) {
+            candidates.setDigit(cell, read[cell]);
+        }
+        set(candidates, 17, 9, 0.9f, 1, 0.5f);
+
+        ConstraintDecoder solvable = new ConstraintDecoder();
+        assertTrue(solvable.decode(candidates, board));
+        assertEquals(1, board[17]);
+        assertEquals(1, new BitmaskSolver().countSolutions(board, 1));
+
+        ConstraintDecoder anyValid = new ConstraintDecoder(
+                ConstraintDecoder.DEFAULT_MAX_NODES, false);
+        assertTrue(anyValid.decode(candidates, board));
+        assertEquals(9, board[17]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.reactlibrary.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class DancingLinksTest {
+
+    @Test
+    public void solvesEverySize() {
+        for (int boxSize = 2; boxSize <= DancingLinks.MAX_BOX_SIZE; boxSize++) {
+            DancingLinks solver = new DancingLinks(boxSize);
+            assertEquals(boxSize * boxSize, solver.getSize());
+            int[] givens = Sudokus.clear(Sudokus.pattern(boxSize), 0.7, boxSize);
+            int[] board = givens.clone();
+            assertTrue("box size " + boxSize, solver.solve(board));
+            Sudokus.assertSolves(givens, board, boxSize);
+        }
+    }
+
+    @Test
+    public void solvesHardNineByNine() {
+        DancingLinks solver = new DancingLinks(3);
+        for (String puzzle : new String[] { Sudokus.EASY, Sudokus.INKALA,
+                Sudokus.SEVENTEEN_CLUES }) {
+            int[] givens = Sudokus.parse(puzzle);
+            int[] board = givens.clone();
+            assertTrue(puzzle, solver.solve(board));
+            Sudokus.assertSolves(givens, board, 3);
+            assertEquals(1, solver.countSolutions(givens, 2));
+        }
+    }
+
+    @Test
+    public void countsEmptyFourByFour() {
+        // there are 288 4x4 sudokus
+        DancingLinks solver = new DancingLinks(2);
+        assertEquals(288, solver.countSolutions(new int[16], Integer.MAX_VALUE));
+        assertEquals(10, solver.countSolutions(new int[16], 10));
+    }
+
+    @Test
+    public void enumerateStopsWhenAsked() {
+        DancingLinks solver = new DancingLinks(2);
+        final int[] seen = new int[1];
+        int passed = solver.enumerate(new int[16], new DancingLinks.SolutionListener() {
+            @Override
+            public boolean onSolution(int[] board) {
+                Sudokus.assertSolves(new int[16], board, 2);
+                return ++seen[0] < 5;
+            }
+        });
+        assertEquals(5, passed);
+        assertEquals(5, seen[0]);
+    }
+
+    @Test
+    public void reportsUnsolvable() {
+        DancingLinks solver = new DancingLinks(2);
+        // cell 3 needs a 4 its column already has
+        int[] board = {
+                1, 2, 3, 0,
+                0, 0, 0, 4,
+                0, 0, 0, 0,
+                0, 0, 0, 0 };
+        int[] before = board.clone();
+        assertFalse(solver.solve(board));
+        assertArrayEquals(before, board);
+        assertFalse(solver.getSolution(board));
+    }
+
+    @Test
+    public void worksAfterInvalidGivens() {
+        for (int boxSize = 2; boxSize <= DancingLinks.MAX_BOX_SIZE; boxSize++) {
+            int n = boxSize * boxSize;
+            DancingLinks solver = new DancingLinks(boxSize);
+            int[] solution = Sudokus.pattern(boxSize);
+            int[] givens = Sudokus.clear(solution, 0.7, boxSize + 1);
+
+            // the conflict comes after some givens were already covered
+            int[] conflict = givens.clone();
+            conflict[n * n - 1] = solution[n * n - 2];
+            conflict[n * n - 2] = solution[n * n - 2];
+            int[] outOfRange = givens.clone();
+            outOfRange[n * n - 1] = n + 1;
+            for (int[] invalid : new int[][] { conflict, outOfRange, new int[n * n - 1] }) {
+                try {
+                    solver.solve(invalid);
+                    fail("accepted invalid board of box size " + boxSize);
+                } catch (IllegalArgumentException expected) {
+                    // conflicting givens, bad digit or size
+                }
+            }
+
+            int[] board = givens.clone();
+            assertTrue("box size " + boxSize, solver.solve(board));
+            Sudokus.assertSolves(givens, board, boxSize);
+            assertEquals(1, solver.countSolutions(solution, 2));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedBoxSize() {
+        new DancingLinks(DancingLinks.MAX_BOX_SIZE + 1);
+    }
+}
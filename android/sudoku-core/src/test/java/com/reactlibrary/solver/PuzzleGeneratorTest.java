@@ -0,0 +1,90 @@
+package com.reactlibrary.solver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class PuzzleGeneratorTest {
+
+    private final PuzzleGenerator generator = new PuzzleGenerator();
+    private final BitmaskSolver solver = new BitmaskSolver();
+
+    private void assertUnique(PuzzleGenerator.Puzzle puzzle) {
+        int[] board = puzzle.getPuzzle();
+        int clues = 0;
+        for (int cell = 0; cell < board.length; cell++) {
+            if (board[cell] != 0) {
+                clues++;
+                assertEquals(puzzle.getSolution()[cell], board[cell]);
+            }
+        }
+        assertEquals(clues, puzzle.getClues());
+        Sudokus.assertSolves(board, puzzle.getSolution(), 3);
+        assertEquals(1, solver.countSolutions(board, 2));
+    }
+
+    @Test
+    public void puzzlesAreUniqueAndKeepTheClueFloor() {
+        Random random = new Random(1);
+        for (int target : new int[] { PuzzleGenerator.MIN_CLUES, 22, PuzzleGenerator.DEFAULT_CLUES, 40, 81 }) {
+            PuzzleGenerator.Puzzle puzzle = generator.generate(target,
+                    PuzzleGenerator.Symmetry.NONE, random);
+            assertUnique(puzzle);
+            assertTrue(target + ": " + puzzle.getClues(), puzzle.getClues() >= target);
+        }
+    }
+
+    @Test
+    public void easyTargetsAreMetExactly() {
+        // far above the point where removals start failing
+        PuzzleGenerator.Puzzle puzzle = generator.generate(50,
+                PuzzleGenerator.Symmetry.NONE, new Random(2));
+        assertEquals(50, puzzle.getClues());
+    }
+
+    @Test
+    public void cluesKeepTheirSymmetry() {
+        Random random = new Random(3);
+        for (PuzzleGenerator.Symmetry symmetry : PuzzleGenerator.Symmetry.values()) {
+            PuzzleGenerator.Puzzle puzzle = generator.generate(28, symmetry, random);
+            assertUnique(puzzle);
+            int[] board = puzzle.getPuzzle();
+            for (int cell = 0; cell < board.length; cell++) {
+                int partner = symmetry.partner(cell);
+                assertEquals(symmetry + " cell " + cell, board[cell] == 0, board[partner] == 0);
+            }
+        }
+    }
+
+    @Test
+    public void batchDependsOnlyOnSeed() {
+        ForkJoinPool one = new ForkJoinPool(1);
+        ForkJoinPool four = new ForkJoinPool(4);
+        try {
+            List<PuzzleGenerator.Puzzle> a = PuzzleGenerator.generateBatch(one, 20, 30,
+                    PuzzleGenerator.Symmetry.ROTATIONAL, 42);
+            List<PuzzleGenerator.Puzzle> b = PuzzleGenerator.generateBatch(four, 20, 30,
+                    PuzzleGenerator.Symmetry.ROTATIONAL, 42);
+            assertEquals(20, a.size());
+            for (int i = 0; i < a.size(); i++) {
+                assertArrayEquals(a.get(i).getPuzzle(), b.get(i).getPuzzle());
+                assertUnique(b.get(i));
+            }
+        } finally {
+            one.shutdown();
+            four.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooFewClues() {
+        generator.generate(PuzzleGenerator.MIN_CLUES - 1, PuzzleGenerator.Symmetry.NONE,
+                new Random(4));
+    }
+}
@@ -0,0 +1,103 @@
+package com.reactlibrary.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+/**
+ * Puzzles and checks shared by the solver tests
+ */
+final class Sudokus {
+
+    // Arto Inkala's "Everest"
+    static final String INKALA =
+            "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+    // from Gordon Royle's collection
+    static final String SEVENTEEN_CLUES =
+            "000000010400000000020000000000050407008000300001090000300400200050100000000806000";
+    static final String EASY =
+            "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    static final String EASY_SOLUTION =
+            "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+    private Sudokus() {
+    }
+
+    /**
+     * returns the board of 81 characters with '0' or '.' for empty cells
+     */
+    static int[] parse(String digits) {
+        int[] board = new int[digits.length()];
+        for (int i = 0; i < board.length; i++) {
+            char c = digits.charAt(i);
+            board[i] = c == '.' ? 0 : c - '0';
+        }
+        return board;
+    }
+
+    /**
+     * returns a solved n x n grid, n = boxSize^2, built from shifted rows
+     */
+    static int[] pattern(int boxSize) {
+        int n = boxSize * boxSize;
+        int[] board = new int[n * n];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                board[row * n + col] = (boxSize * (row % boxSize) + row / boxSize + col) % n + 1;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * returns board with each cell kept with probability keep, the rest
+     * cleared; the same seed clears the same cells
+     */
+    static int[] clear(int[] board, double keep, long seed) {
+        Random random = new Random(seed);
+        int[] givens = new int[board.length];
+        for (int cell = 0; cell < board.length; cell++) {
+            if (random.nextDouble() < keep) {
+                givens[cell] = board[cell];
+            }
+        }
+        return givens;
+    }
+
+    /**
+     * fails unless board is a complete n x n grid with boxSize x boxSize
+     * boxes that keeps every given of givens
+     */
+    static void assertSolves(int[] givens, int[] board, int boxSize) {
+        int n = boxSize * boxSize;
+        assertEquals(n * n, board.length);
+        for (int cell = 0; cell < board.length; cell++) {
+            if (givens[cell] != 0) {
+                assertEquals("given of cell " + cell, givens[cell], board[cell]);
+            }
+        }
+        for (int unit = 0; unit < n; unit++) {
+            boolean[] row = new boolean[n + 1];
+            boolean[] col = new boolean[n + 1];
+            boolean[] box = new boolean[n + 1];
+            for (int i = 0; i < n; i++) {
+                int boxRow = (unit / boxSize) * boxSize + i / boxSize;
+                int boxCol = (unit % boxSize) * boxSize + i % boxSize;
+                row[check(board[unit * n + i], n)] = true;
+                col[check(board[i * n + unit], n)] = true;
+                box[check(board[boxRow * n + boxCol], n)] = true;
+            }
+            for (int digit = 1; digit <= n; digit++) {
+                assertTrue("row " + unit + " misses " + digit, row[digit]);
+                assertTrue("column " + unit + " misses " + digit, col[digit]);
+                assertTrue("box " + unit + " misses " + digit, box[digit]);
+            }
+        }
+    }
+
+    private static int check(int digit, int n) {
+        assertTrue("digit " + digit + " out of range", digit >= 1 && digit <= n);
+        return digit;
+    }
+}
@@ -0,0 +1,125 @@
+package com.reactlibrary.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void emptyHistogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean(), 0);
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 0; value < 16; value++) {
+            histogram.record(value);
+        }
+        assertEquals(16, histogram.getCount());
+        assertEquals(120, histogram.getTotal());
+        assertEquals(15, histogram.getMax());
+        assertEquals(7.5, histogram.getMean(), 1e-9);
+        assertEquals(0, histogram.getPercentile(0));
+        assertEquals(7, histogram.getPercentile(50));
+        assertEquals(15, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void negativeValuesCountAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getTotal());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test
+    public void percentilesWithinBucketError() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100000; value++) {
+            histogram.record(value * 1000);
+        }
+        for (double percentile : new double[] { 1, 10, 50, 90, 99, 99.9 }) {
+            double exact = percentile * 1000 * 1000;
+            long estimate = histogram.getPercentile(percentile);
+            assertTrue(percentile + ": " + estimate,
+                    Math.abs(estimate - exact) <= exact / 16);
+        }
+        assertEquals(100000000L, histogram.getMax());
+        // the middle of the top bucket, never above the max
+        assertTrue(histogram.getPercentile(100) <= histogram.getMax());
+    }
+
+    @Test
+    public void bucketsCoverWholeRange() {
+        Histogram histogram = new Histogram();
+        long[] values = { 16, 17, 31, 32, 1L << 40, Long.MAX_VALUE / 2, Long.MAX_VALUE };
+        for (long value : values) {
+            histogram.record(value);
+        }
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        // each value lands in a bucket no wider than 1/16 of it
+        for (int i = 0; i < values.length; i++) {
+            double percentile = 100.0 * (i + 0.5) / values.length;
+            long estimate = histogram.getPercentile(percentile);
+            assertTrue(values[i] + ": " + estimate,
+                    Math.abs((double) estimate - values[i]) <= values[i] / 16.0);
+        }
+    }
+
+    @Test
+    public void addMergesAndResetClears() {
+        Histogram a = new Histogram();
+        Histogram b = new Histogram();
+        for (int i = 1; i <= 100; i++) {
+            a.record(i);
+            b.record(1000 + i);
+        }
+        Histogram merged = a.snapshot();
+        merged.add(b);
+        assertEquals(200, merged.getCount());
+        assertEquals(a.getTotal() + b.getTotal(), merged.getTotal());
+        assertEquals(1100, merged.getMax());
+        assertTrue(merged.getPercentile(25) <= 100);
+        assertTrue(merged.getPercentile(75) > 1000);
+        // the snapshot is a copy
+        assertEquals(100, a.getCount());
+
+        merged.reset();
+        assertEquals(0, merged.getCount());
+        assertEquals(0, merged.getTotal());
+        assertEquals(0, merged.getMax());
+        assertEquals(0, merged.getPercentile(99));
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws InterruptedException {
+        final Histogram histogram = new Histogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; i++) {
+                        histogram.record(i + offset);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, histogram.getCount());
+        assertEquals(10002, histogram.getMax());
+    }
+}
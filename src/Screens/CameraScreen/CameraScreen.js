@@ -1,12 +1,21 @@
 import React, {Component} from 'react';
-import {View, Text, Image, TouchableOpacity} from 'react-native';
+import {View, Text, Image, TouchableOpacity, Platform} from 'react-native';
 import {RNCamera as Camera} from 'react-native-camera';
 import Toast from 'react-native-easy-toast';
 
 import styles from './Styles';
 import CircleWithinCircle from '../../assets/svg/CircleWithinCircle';
 import {showToast} from '../../utils/Toast';
-import {checkForBlurryImage} from '../../utils/ImageUtils';
+import {
+  checkForBlurryImage,
+  startBlurCheck,
+  startBurstScan,
+  cancelScan,
+  isScanCancelled,
+} from '../../utils/ImageUtils';
+
+// photos taken per shot on Android; the scan reads the sharpest
+const BURST_SIZE = 3;
 
 export default class CameraScreen extends Component {
   constructor() {
@@ -26,27 +35,45 @@ export default class CameraScreen extends Component {
       content: '',
       isPhotoPreview: false,
       photoPath: '',
+      burstPaths: [],
     },
   };
 
   async takePicture() {
     if (this.camera) {
-      const options = {quality: 0.5, base64: true};
+      // Android reads the photo from data.uri, so skip the base64 copy there
+      const options = {quality: 0.5, base64: Platform.OS !== 'android'};
       const data = await this.camera.takePictureAsync(options);
+      const burstPaths = [data.uri];
+      if (Platform.OS === 'android') {
+        while (burstPaths.length < BURST_SIZE) {
+          const frame = await this.camera.takePictureAsync(options);
+          burstPaths.push(frame.uri);
+        }
+      }
       this.setState({
         ...this.state,
         photoAsBase64: {
           content: data.base64,
           isPhotoPreview: true,
           photoPath: data.uri,
+          burstPaths,
         },
       });
     }
   }
 
-  proceedWithCheckingBlurryImage(content) {
+  proceedWithCheckingBlurryImage({content, photoPath}) {
+    let check;
+    if (Platform.OS === 'android') {
+      const {scanId, result} = startBlurCheck(photoPath);
+      this.pendingScanId = scanId;
+      check = result;
+    } else {
+      check = checkForBlurryImage(content);
+    }
     return new Promise((resolve, reject) => {
-      checkForBlurryImage(content)
+      check
         .then((blurryPhoto) => {
           if (blurryPhoto) {
             showToast('Photo is blurred!');
@@ -55,6 +82,10 @@ export default class CameraScreen extends Component {
           resolve(true);
         })
         .catch((err) => {
+          if (isScanCancelled(err)) {
+            resolve(false);
+            return;
+          }
           console.log('err', err);
           reject(err);
         });
@@ -62,19 +93,49 @@ export default class CameraScreen extends Component {
   }
 
   repeatPhoto() {
+    // the abandoned photo's check or scan must not keep the CPU busy
+    cancelScan(this.pendingScanId);
+    this.pendingScanId = null;
     this.setState({
       ...this.state,
       photoAsBase64: {
         content: '',
         isPhotoPreview: false,
         photoPath: '',
+        burstPaths: [],
       },
     });
   }
 
+  async scanBurst(burstPaths) {
+    // a second tap replaces the scan still running
+    cancelScan(this.pendingScanId);
+    const {scanId, result} = startBurstScan(burstPaths);
+    this.pendingScanId = scanId;
+    let scanResult;
+    try {
+      scanResult = await result;
+    } catch (error) {
+      if (isScanCancelled(error)) {
+        return;
+      }
+      throw error;
+    }
+    const {grid} = JSON.parse(scanResult);
+    if (!grid) {
+      showToast('No sudoku found, try again');
+      return;
+    }
+    this.props.navigation.navigate('Sudoku', {grid});
+  }
+
   async usePhoto() {
+    if (Platform.OS === 'android') {
+      await this.scanBurst(this.state.photoAsBase64.burstPaths);
+      return;
+    }
     // do something, e.g. navigate
-    await this.proceedWithCheckingBlurryImage(this.state.photoAsBase64.content);
+    await this.proceedWithCheckingBlurryImage(this.state.photoAsBase64);
     this.props.navigation.pop();
   }
 
@@ -85,7 +146,9 @@ export default class CameraScreen extends Component {
           <Toast ref={(ref) => (this.toast = ref)} position="center" />
           <Image
             source={{
-              uri: `data:image/png;base64,${this.state.photoAsBase64.content}`,
+              uri: this.state.photoAsBase64.content
+                ? `data:image/png;base64,${this.state.photoAsBase64.content}`
+                : this.state.photoAsBase64.photoPath,
             }}
             style={styles.imagePreview}
           />
@@ -1,10 +1,24 @@
 import React, {Component} from 'react';
-import {SafeAreaView, View, StatusBar, Button} from 'react-native';
+import {SafeAreaView, View, StatusBar, Button, Platform} from 'react-native';
 import ImagePicker from 'react-native-image-picker';
-import {scanSudoku} from '../../utils/ImageUtils';
+import {
+  scanSudoku,
+  startScan,
+  cancelScan,
+  isScanCancelled,
+} from '../../utils/ImageUtils';
 import {styles} from './Styles';
 import FastImage from 'react-native-fast-image';
 
+// screen-sized JPEG written to the app cache; only its uri crosses the bridge
+const PREVIEW_OPTIONS = {
+  preview: true,
+  maxDimension: 1024,
+  format: 'jpeg',
+  quality: 80,
+  output: 'file',
+};
+
 export default class HomeScreen extends Component {
   state = {
     result: null,
@@ -18,6 +32,7 @@ export default class HomeScreen extends Component {
     // More info on all the options is below in the API Reference... just some common use cases shown here
     const options = {
       title: 'Select Image',
+      noData: Platform.OS === 'android',
       storageOptions: {
         skipBackup: true,
         path: 'downloads',
@@ -38,12 +53,28 @@ export default class HomeScreen extends Component {
       } else if (response.customButton) {
         console.log('User tapped custom button: ', response.customButton);
       } else {
-        // You can also display the image using data:
-        this.imageBase64Data = response.data;
-        const {grid, imageBase64} = JSON.parse(
-          await scanSudoku(this.imageBase64Data),
-        );
-        const source = {uri: `data:image/gif;base64, ${imageBase64}`};
+        // Android decodes the picked file natively; no base64 needed
+        let scanResult;
+        if (Platform.OS === 'android') {
+          // a newly picked image replaces the one still being scanned
+          cancelScan(this.pendingScanId);
+          const {scanId, result} = startScan(response.uri, PREVIEW_OPTIONS);
+          this.pendingScanId = scanId;
+          try {
+            scanResult = await result;
+          } catch (error) {
+            if (isScanCancelled(error)) {
+              return;
+            }
+            throw error;
+          }
+        } else {
+          scanResult = await scanSudoku(response.data);
+        }
+        const {grid, imageBase64, imageUri} = JSON.parse(scanResult);
+        const source = imageUri
+          ? {uri: imageUri}
+          : {uri: `data:image/gif;base64, ${imageBase64}`};
         console.log(grid);
         this.props.navigation.navigate('Sudoku', {grid});
         this.setState({
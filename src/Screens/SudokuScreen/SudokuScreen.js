@@ -2,6 +2,7 @@ import React, {PureComponent} from 'react';
 import Cell from '../../components/sudoku/cell/Cell';
 import {Sudoku} from '../../utils/sudoku';
 import {delay} from '../../utils/helpers';
+import {solveSudoku} from '../../utils/SolverUtils';
 import {Button, Switch, View} from 'react-native';
 import {styles} from './Styles';
 
@@ -22,7 +23,27 @@ class SudokuComponent extends PureComponent {
   }
 
   async solve() {
-    if (!this.running) {
+    if (!this.running && this.state.isEnabled) {
+      // switch on: show the solution in one go instead of animating the
+      // steps. Android solves natively off the JS thread; elsewhere the JS
+      // solver still runs on it
+      this.running = true;
+      try {
+        const grid = this.state.matrix.map((row) =>
+          row.map((cell) => cell.value),
+        );
+        const solved = await solveSudoku(grid);
+        const matrix = this.state.matrix.map((row, i) =>
+          row.map((cell, j) =>
+            cell.value ? cell : {value: solved[i][j], type: 'green'},
+          ),
+        );
+        this.setState({matrix});
+      } catch (error) {
+        console.log('Solve failed: ', error);
+      }
+      this.running = false;
+    } else if (!this.running) {
       this.running = true;
       const animations = this.sudoku.getSteps();
 
@@ -40,3 +40,90 @@ export async function scanSudoku(imageAsBase64) {
     }
   });
 }
+
+// Same checks as above, but the native side decodes the photo straight from
+// its file path / content uri, so no base64 string crosses the bridge.
+export async function checkForBlurryImageFromUri(imageUri) {
+  return new Promise((resolve, reject) => {
+    OpenCV.checkForBlurryImageFromUri(imageUri, reject, resolve);
+  });
+}
+
+// options: {preview, maxDimension, format: 'jpeg' | 'webp' | 'png', quality,
+// output: 'base64' | 'file'}. Without preview: true only the grid is
+// returned; with output 'file' the result carries imageUri instead of
+// imageBase64.
+export async function scanSudokuFromUri(imageUri, options = null) {
+  return new Promise((resolve, reject) => {
+    OpenCV.scanSudokuFromUri(imageUri, options, reject, resolve);
+  });
+}
+
+// 'tesseract' (default) or 'prototype' for the bundled pure-Java classifier;
+// any other name is ignored (and logged on the native side).
+export function setDigitRecognizer(name) {
+  if (Platform.OS === 'android') {
+    OpenCV.setDigitRecognizer(name);
+  }
+}
+
+// Per-stage scan timings (Android). Off by default; while enabled every
+// completed scan adds one sample per stage.
+export function setPipelineStatsEnabled(enabled) {
+  if (Platform.OS === 'android') {
+    OpenCV.setPipelineStatsEnabled(enabled);
+  }
+}
+
+// Resolves with {enabled, stages}; stages maps e.g. 'grid' or 'ocr' to
+// {count, meanMs, p50Ms, p90Ms, p99Ms, maxMs}. {reset: true} clears the
+// stats after reading them.
+export async function getPipelineStats({reset = false} = {}) {
+  if (Platform.OS !== 'android') {
+    return {enabled: false, stages: {}};
+  }
+  return OpenCV.getPipelineStats(reset);
+}
+
+let nextScanId = 0;
+
+function startAsync(method, ...args) {
+  const scanId = `scan-${Date.now()}-${nextScanId++}`;
+  return {scanId, result: OpenCV[method](scanId, ...args)};
+}
+
+// Runs the scan on the native scan executor instead of the native-modules
+// thread. Returns {scanId, result}; pass scanId to cancelScan to abandon it,
+// in which case result rejects with code E_SCAN_CANCELLED. options are the
+// same as for scanSudokuFromUri.
+export function startScan(imageUri, options = null) {
+  return startAsync('scanSudokuAsync', imageUri, options);
+}
+
+// Scans photos of the same puzzle taken one right after the other and reads
+// the sharpest. Returns {scanId, result} like startScan; result resolves with
+// a JSON string {grid, frame}, frame being the index of the photo read.
+export function startBurstScan(imageUris) {
+  return startAsync('scanBurstAsync', imageUris);
+}
+
+export function startBlurCheck(imageUri) {
+  return startAsync('checkForBlurryImageAsync', imageUri);
+}
+
+// Resolves with {score, blurry, gridFound}; score is the Laplacian variance
+// of the (downsampled) photo, higher is sharper. With {grid: true} only the
+// detected grid is scored.
+export function startSharpnessCheck(imageUri, options = null) {
+  return startAsync('measureSharpnessAsync', imageUri, options);
+}
+
+export function cancelScan(scanId) {
+  if (scanId) {
+    OpenCV.cancelScan(scanId);
+  }
+}
+
+export function isScanCancelled(error) {
+  return error && error.code === 'E_SCAN_CANCELLED';
+}
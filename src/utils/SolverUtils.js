@@ -0,0 +1,35 @@
+import {Platform} from 'react-native';
+import SudokuSolver from '../NativeModules/SudokuSolver';
+import {Sudoku} from './sudoku';
+
+// Solves an NxN grid of numbers (N = 4, 9, 16 or 25; 0 for empty) and
+// resolves with the solved grid. Android solves natively; elsewhere the JS
+// backtracking solver runs.
+// Rejects with code E_INVALID_GRID, E_UNSOLVABLE or E_SOLVE_FAILED on
+// Android.
+export async function solveSudoku(grid) {
+  if (Platform.OS === 'android') {
+    return SudokuSolver.solveSudoku(grid);
+  }
+  const sudoku = new Sudoku(grid.length, grid);
+  sudoku.getSteps();
+  return sudoku.getMatrix().map((row) => row.map((cell) => cell.value));
+}
+
+// Generates puzzles with exactly one solution, resolving with an array of
+// {puzzle, solution, clues}. Options: count, clues (17-81, a floor), symmetry
+// ('none', 'rotational', 'mirror' or 'diagonal') and seed. Only Android
+// generates natively and checks uniqueness; elsewhere the JS generator makes
+// a single puzzle with 50 cells removed at random.
+export async function generateSudoku(options = {}) {
+  if (Platform.OS === 'android') {
+    return SudokuSolver.generateSudoku(options);
+  }
+  const sudoku = new Sudoku(9);
+  const puzzle = sudoku.getMatrix().map((row) => row.map((cell) => cell.value));
+  const clues = puzzle.reduce(
+    (sum, row) => sum + row.filter((value) => value !== 0).length,
+    0,
+  );
+  return [{puzzle, solution: await solveSudoku(puzzle), clues}];
+}